@@ -268,6 +268,21 @@ public class GanttDiagramGraph<V, D extends IDependency<V>> implements
         public void execute();
     }
 
+    /**
+     * Receives the progress of the enforcement of all the restrictions. It's
+     * called each time a task point has been recalculated.
+     */
+    public interface IEnforcementProgressListener {
+        public void recalculated(int done, int total);
+    }
+
+    private static final IEnforcementProgressListener NO_PROGRESS_LISTENER = new IEnforcementProgressListener() {
+
+        @Override
+        public void recalculated(int done, int total) {
+        }
+    };
+
     public static GanttZKDiagramGraph create(boolean scheduleBackwards,
             List<Constraint<GanttDate>> globalStartConstraints,
             List<Constraint<GanttDate>> globalEndConstraints,
@@ -384,7 +399,20 @@ public class GanttDiagramGraph<V, D extends IDependency<V>> implements
     }
 
     public void enforceAllRestrictions() {
-        enforcer.enforceRestrictionsOn(withoutVisibleIncomingDependencies(getTopLevelTasks()));
+        enforceAllRestrictions(NO_PROGRESS_LISTENER);
+    }
+
+    /**
+     * Like {@link #enforceAllRestrictions()} but telling the progress to
+     * <code>progressListener</code>, so it can be shown when the whole graph
+     * is rescheduled in the background
+     */
+    public void enforceAllRestrictions(
+            IEnforcementProgressListener progressListener) {
+        Validate.notNull(progressListener);
+        enforcer.enforceRestrictionsOn(
+                withoutVisibleIncomingDependencies(getTopLevelTasks()),
+                progressListener);
     }
 
     private List<V> withoutVisibleIncomingDependencies(
@@ -918,24 +946,31 @@ public class GanttDiagramGraph<V, D extends IDependency<V>> implements
         }
 
         void enforceRestrictionsOn(Collection<? extends V> tasks) {
+            enforceRestrictionsOn(tasks, NO_PROGRESS_LISTENER);
+        }
+
+        void enforceRestrictionsOn(Collection<? extends V> tasks,
+                IEnforcementProgressListener progressListener) {
             List<Recalculation> allRecalculations = new ArrayList<Recalculation>();
             for (V each : tasks) {
                 allRecalculations.addAll(getRecalculationsNeededFrom(each));
             }
-            enforceRestrictionsOn(allRecalculations, tasks);
+            enforceRestrictionsOn(allRecalculations, tasks, progressListener);
         }
 
         void enforceRestrictionsOn(V task) {
             enforceRestrictionsOn(getRecalculationsNeededFrom(task),
-                    Collections.singleton(task));
+                    Collections.singleton(task), NO_PROGRESS_LISTENER);
         }
 
         void enforceRestrictionsOn(final List<Recalculation> recalculations,
-                final Collection<? extends V> initiallyModified) {
+                final Collection<? extends V> initiallyModified,
+                final IEnforcementProgressListener progressListener) {
             executeWithPreAndPostActionsOnlyIfNewEntrance(new IAction() {
                 @Override
                 public void doAction() {
-                    doRecalculations(recalculations, initiallyModified);
+                    doRecalculations(recalculations, initiallyModified,
+                            progressListener);
                 }
             });
         }
@@ -1028,13 +1063,23 @@ public class GanttDiagramGraph<V, D extends IDependency<V>> implements
 
         private void doRecalculations(List<Recalculation> recalculationsNeeded,
                 Collection<? extends V> initiallyModified) {
+            doRecalculations(recalculationsNeeded, initiallyModified,
+                    NO_PROGRESS_LISTENER);
+        }
+
+        private void doRecalculations(List<Recalculation> recalculationsNeeded,
+                Collection<? extends V> initiallyModified,
+                IEnforcementProgressListener progressListener) {
             Set<V> allModified = new HashSet<V>();
             allModified.addAll(initiallyModified);
+            int done = 0;
+            int total = recalculationsNeeded.size();
             for (Recalculation each : recalculationsNeeded) {
                 boolean modified = each.doRecalculation();
                 if (modified) {
                     allModified.add(each.taskPoint.task);
                 }
+                progressListener.recalculated(++done, total);
             }
             List<V> shrunkContainers = shrunkContainersOfModified(allModified);
             for (V each : getTaskAffectedByShrinking(shrunkContainers)) {
@@ -0,0 +1,121 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2014 Igalia, S.L.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.zkoss.ganttz.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import org.joda.time.LocalDate;
+import org.junit.Before;
+import org.junit.Test;
+import org.zkoss.ganttz.data.GanttDiagramGraph.GanttZKDiagramGraph;
+import org.zkoss.ganttz.data.GanttDiagramGraph.IEnforcementProgressListener;
+import org.zkoss.ganttz.data.constraint.Constraint;
+
+public class GanttDiagramGraphTest {
+
+    private static final long TEN_DAYS = 10L * 24 * 60 * 60 * 1000;
+
+    private GanttZKDiagramGraph graph;
+
+    private List<Integer> done;
+
+    private List<Integer> totals;
+
+    private IEnforcementProgressListener progressListener = new IEnforcementProgressListener() {
+
+        @Override
+        public void recalculated(int done, int total) {
+            GanttDiagramGraphTest.this.done.add(done);
+            totals.add(total);
+        }
+    };
+
+    @Before
+    public void setUp() {
+        graph = GanttDiagramGraph.create(false,
+                Collections.<Constraint<GanttDate>> emptyList(),
+                Collections.<Constraint<GanttDate>> emptyList(), false);
+        done = new ArrayList<Integer>();
+        totals = new ArrayList<Integer>();
+    }
+
+    private static Task createTask(String name, LocalDate start) {
+        Date begin = start.toDateTimeAtStartOfDay().toDate();
+        return new TaskLeaf(new DefaultFundamentalProperties(name, begin,
+                TEN_DAYS, "", begin, begin, begin, BigDecimal.ZERO,
+                BigDecimal.ZERO, BigDecimal.ZERO));
+    }
+
+    /**
+     * All the tasks start at the same day, so each one overlaps the previous
+     * one it depends on
+     */
+    private List<Task> givenChainOfOverlappedTasks(int size) {
+        List<Task> result = new ArrayList<Task>();
+        LocalDate start = new LocalDate(2014, 1, 6);
+        for (int i = 0; i < size; i++) {
+            Task task = createTask("task " + i, start);
+            graph.addTopLevel(task);
+            if (!result.isEmpty()) {
+                graph.addWithoutEnforcingConstraints(new Dependency(result
+                        .get(result.size() - 1), task,
+                        DependencyType.END_START));
+            }
+            result.add(task);
+        }
+        return result;
+    }
+
+    @Test
+    public void theProgressIsReportedUntilReachingTheTotal() {
+        givenChainOfOverlappedTasks(5);
+
+        graph.enforceAllRestrictions(progressListener);
+
+        assertFalse(done.isEmpty());
+        int total = totals.get(0);
+        for (int i = 0; i < done.size(); i++) {
+            assertEquals(i + 1, done.get(i).intValue());
+            assertEquals(total, totals.get(i).intValue());
+        }
+        assertEquals(total, done.get(done.size() - 1).intValue());
+    }
+
+    @Test
+    public void theRestrictionsAreEnforcedWhileReportingTheProgress() {
+        List<Task> tasks = givenChainOfOverlappedTasks(3);
+
+        graph.enforceAllRestrictions(progressListener);
+
+        for (int i = 1; i < tasks.size(); i++) {
+            GanttDate previousEnd = tasks.get(i - 1).getEndDate();
+            GanttDate start = tasks.get(i).getBeginDate();
+            assertTrue(start.compareTo(previousEnd) >= 0);
+        }
+    }
+
+}
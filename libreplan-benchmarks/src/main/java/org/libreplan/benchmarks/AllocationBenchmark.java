@@ -0,0 +1,117 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2014 Igalia, S.L.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.libreplan.benchmarks;
+
+import static org.libreplan.business.workingday.EffortDuration.hours;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.libreplan.business.calendars.entities.BaseCalendar;
+import org.libreplan.business.orders.entities.Order;
+import org.libreplan.business.planner.entities.AssignedEffortForResource;
+import org.libreplan.business.planner.entities.EffortDistributor;
+import org.libreplan.business.planner.entities.EffortDistributor.ResourceWithAssignedDuration;
+import org.libreplan.business.planner.entities.GenericResourceAllocation;
+import org.libreplan.business.planner.entities.ResourceAllocation;
+import org.libreplan.business.planner.entities.SpecificResourceAllocation;
+import org.libreplan.business.planner.entities.Task;
+import org.libreplan.business.planner.entities.allocationalgorithms.ResourcesPerDayModification;
+import org.libreplan.business.planner.entities.allocationalgorithms.UntilFillingHoursAllocator;
+import org.libreplan.business.resources.entities.Resource;
+import org.libreplan.business.workingday.IntraDayDate;
+import org.libreplan.business.workingday.IntraDayDate.PartialDay;
+import org.libreplan.business.workingday.ResourcesPerDay;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures the allocation algorithms: {@link UntilFillingHoursAllocator} for
+ * specific and generic allocations and the {@link EffortDistributor} that
+ * splits the effort of a day among the candidate resources.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AllocationBenchmark {
+
+    @Param({ "10", "50", "200" })
+    public int workers;
+
+    @Param({ "80", "2000" })
+    public int hoursToAllocate;
+
+    private Task task;
+
+    private SpecificResourceAllocation specificAllocation;
+
+    private GenericResourceAllocation genericAllocation;
+
+    private List<Resource> resources;
+
+    private EffortDistributor distributor;
+
+    @Setup
+    public void setUp() {
+        SyntheticData data = new SyntheticData(42);
+        BaseCalendar calendar = data.calendar(3, 20);
+        resources = data.workers(workers, calendar);
+        Order order = data.order(calendar);
+        task = data.task(order, hoursToAllocate);
+
+        specificAllocation = SpecificResourceAllocation.create(task);
+        specificAllocation.setResource(resources.get(0));
+        genericAllocation = GenericResourceAllocation.create(task);
+
+        distributor = new EffortDistributor(resources,
+                AssignedEffortForResource.effortDiscounting(Arrays
+                        .asList(genericAllocation)));
+    }
+
+    @Benchmark
+    public IntraDayDate untilFillingHoursSpecific() {
+        return ResourceAllocation.allocating(
+                Arrays.asList(ResourcesPerDayModification.create(
+                        specificAllocation, ResourcesPerDay.amount(1))))
+                .untilAllocating(hours(hoursToAllocate));
+    }
+
+    @Benchmark
+    public IntraDayDate untilFillingHoursGeneric() {
+        return ResourceAllocation.allocating(
+                Arrays.asList(ResourcesPerDayModification.create(
+                        genericAllocation, ResourcesPerDay.amount(1),
+                        resources))).untilAllocating(hours(hoursToAllocate));
+    }
+
+    @Benchmark
+    public List<ResourceWithAssignedDuration> distributeForDay() {
+        return distributor.distributeForDay(
+                PartialDay.wholeDay(SyntheticData.START),
+                hours(8 * workers / 2));
+    }
+
+}
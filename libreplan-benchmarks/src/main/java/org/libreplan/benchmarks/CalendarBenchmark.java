@@ -0,0 +1,71 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2014 Igalia, S.L.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.libreplan.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.joda.time.LocalDate;
+import org.libreplan.business.calendars.entities.BaseCalendar;
+import org.libreplan.business.workingday.EffortDuration;
+import org.libreplan.business.workingday.IntraDayDate.PartialDay;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures {@link BaseCalendar#getCapacityOn(PartialDay)} over a whole
+ * interval, as it's done when allocating or drawing the load charts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CalendarBenchmark {
+
+    @Param({ "30", "365", "1825" })
+    public int days;
+
+    @Param({ "10", "60" })
+    public int holidaysPerYear;
+
+    private BaseCalendar calendar;
+
+    @Setup
+    public void setUp() {
+        SyntheticData data = new SyntheticData(42);
+        calendar = data.calendar(Math.max(1, days / 365 + 1), holidaysPerYear);
+    }
+
+    @Benchmark
+    public EffortDuration capacityOnInterval() {
+        EffortDuration result = EffortDuration.zero();
+        LocalDate day = SyntheticData.START;
+        for (int i = 0; i < days; i++) {
+            result = result.plus(calendar.getCapacityOn(PartialDay
+                    .wholeDay(day)));
+            day = day.plusDays(1);
+        }
+        return result;
+    }
+
+}
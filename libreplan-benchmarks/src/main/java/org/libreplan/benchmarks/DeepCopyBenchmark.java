@@ -0,0 +1,64 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2014 Igalia, S.L.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.libreplan.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.libreplan.business.calendars.entities.BaseCalendar;
+import org.libreplan.business.orders.entities.Order;
+import org.libreplan.business.util.deepcopy.DeepCopy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures {@link DeepCopy} of an order with its lines and tasks, as done
+ * when creating a new scenario or saving an order as a template.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class DeepCopyBenchmark {
+
+    @Param({ "10", "200" })
+    public int lines;
+
+    private Order order;
+
+    @Setup
+    public void setUp() {
+        SyntheticData data = new SyntheticData(42);
+        BaseCalendar calendar = data.calendar(1, 10);
+        order = data.order(calendar);
+        for (int i = 0; i < lines; i++) {
+            data.task(order, 40);
+        }
+    }
+
+    @Benchmark
+    public Order copyOrder() {
+        return new DeepCopy().copy(order);
+    }
+
+}
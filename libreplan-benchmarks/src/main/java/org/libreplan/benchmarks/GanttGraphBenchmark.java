@@ -0,0 +1,85 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2014 Igalia, S.L.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.libreplan.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.joda.time.LocalDate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.zkoss.ganttz.data.Dependency;
+import org.zkoss.ganttz.data.GanttDiagramGraph.GanttZKDiagramGraph;
+import org.zkoss.ganttz.data.Task;
+import org.zkoss.ganttz.data.criticalpath.CriticalPathCalculator;
+
+/**
+ * Measures the propagation of a change along the dependencies of a
+ * {@link GanttZKDiagramGraph} and the calculation of its critical path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class GanttGraphBenchmark {
+
+    @Param({ "10", "50" })
+    public int chains;
+
+    @Param({ "10", "100" })
+    public int chainLength;
+
+    private GanttZKDiagramGraph graph;
+
+    private Task first;
+
+    private LocalDate firstStart;
+
+    private boolean longer = false;
+
+    @Setup
+    public void setUp() {
+        graph = new SyntheticData(42).ganttGraph(chains, chainLength);
+        first = graph.getTopLevelTasks().get(0);
+        firstStart = first.getBeginDateAsLocalDate();
+    }
+
+    /**
+     * Alternates the length of the first task so every invocation moves all
+     * the tasks depending on it
+     */
+    @Benchmark
+    public Task enforceDependencies() {
+        longer = !longer;
+        first.resizeTo(firstStart.plusDays(longer ? 60 : 1));
+        return first;
+    }
+
+    @Benchmark
+    public List<Task> criticalPath() {
+        return CriticalPathCalculator.<Task, Dependency> create(false)
+                .calculateCriticalPath(graph);
+    }
+
+}
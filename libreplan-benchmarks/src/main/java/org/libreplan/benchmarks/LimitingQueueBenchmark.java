@@ -0,0 +1,71 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2014 Igalia, S.L.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.libreplan.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.libreplan.business.calendars.entities.BaseCalendar;
+import org.libreplan.business.orders.entities.Order;
+import org.libreplan.business.planner.limiting.entities.Gap;
+import org.libreplan.business.planner.limiting.entities.LimitingResourceAllocator;
+import org.libreplan.business.planner.limiting.entities.LimitingResourceQueueElement;
+import org.libreplan.business.resources.entities.LimitingResourceQueue;
+import org.libreplan.business.resources.entities.Worker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures the search of the first gap where an element fits in a limiting
+ * resource queue. The element is bigger than most of the gaps, so a good part
+ * of the queue is traversed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LimitingQueueBenchmark {
+
+    @Param({ "50", "500" })
+    public int queueSize;
+
+    private LimitingResourceQueue queue;
+
+    private LimitingResourceQueueElement element;
+
+    @Setup
+    public void setUp() {
+        SyntheticData data = new SyntheticData(42);
+        BaseCalendar calendar = data.calendar(5, 10);
+        Worker worker = data.limitingWorker(calendar);
+        Order order = data.order(calendar);
+        queue = data.limitingQueue(worker, order, queueSize);
+        element = data.limitingElement(worker, order, 24);
+    }
+
+    @Benchmark
+    public Gap firstValidGap() {
+        return LimitingResourceAllocator.getFirstValidGap(queue, element);
+    }
+
+}
@@ -0,0 +1,70 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2014 Igalia, S.L.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.libreplan.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.libreplan.business.calendars.entities.BaseCalendar;
+import org.libreplan.business.planner.chart.ResourceLoadChartData;
+import org.libreplan.business.planner.entities.DayAssignment;
+import org.libreplan.business.resources.entities.Resource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures the calculation of the load, overload and availability lines of
+ * the company load chart.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ResourceLoadChartBenchmark {
+
+    @Param({ "10", "100" })
+    public int workers;
+
+    @Param({ "90", "365" })
+    public int days;
+
+    private List<Resource> resources;
+
+    private List<DayAssignment> dayAssignments;
+
+    @Setup
+    public void setUp() {
+        SyntheticData data = new SyntheticData(42);
+        BaseCalendar calendar = data.calendar(2, 20);
+        resources = data.workers(workers, calendar);
+        dayAssignments = data.dayAssignments(resources, SyntheticData.START,
+                days);
+    }
+
+    @Benchmark
+    public ResourceLoadChartData chartData() {
+        return new ResourceLoadChartData(dayAssignments, resources);
+    }
+
+}
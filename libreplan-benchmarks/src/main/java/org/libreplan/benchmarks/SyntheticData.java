@@ -0,0 +1,272 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2014 Igalia, S.L.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.libreplan.benchmarks;
+
+import static org.libreplan.business.workingday.EffortDuration.hours;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+import org.joda.time.LocalDate;
+import org.libreplan.business.calendars.entities.BaseCalendar;
+import org.libreplan.business.calendars.entities.CalendarException;
+import org.libreplan.business.calendars.entities.CalendarExceptionType;
+import org.libreplan.business.calendars.entities.CalendarExceptionTypeColor;
+import org.libreplan.business.calendars.entities.Capacity;
+import org.libreplan.business.orders.entities.Order;
+import org.libreplan.business.orders.entities.OrderLine;
+import org.libreplan.business.orders.entities.TaskSource;
+import org.libreplan.business.planner.entities.DayAssignment;
+import org.libreplan.business.planner.entities.SpecificDayAssignment;
+import org.libreplan.business.planner.entities.SpecificResourceAllocation;
+import org.libreplan.business.planner.entities.Task;
+import org.libreplan.business.planner.limiting.entities.LimitingResourceQueueElement;
+import org.libreplan.business.resources.entities.LimitingResourceQueue;
+import org.libreplan.business.resources.entities.Resource;
+import org.libreplan.business.resources.entities.ResourceType;
+import org.libreplan.business.resources.entities.Worker;
+import org.libreplan.business.scenarios.entities.OrderVersion;
+import org.libreplan.business.scenarios.entities.Scenario;
+import org.libreplan.business.workingday.EffortDuration;
+import org.zkoss.ganttz.data.DefaultFundamentalProperties;
+import org.zkoss.ganttz.data.Dependency;
+import org.zkoss.ganttz.data.DependencyType;
+import org.zkoss.ganttz.data.GanttDate;
+import org.zkoss.ganttz.data.GanttDiagramGraph;
+import org.zkoss.ganttz.data.GanttDiagramGraph.GanttZKDiagramGraph;
+import org.zkoss.ganttz.data.TaskLeaf;
+import org.zkoss.ganttz.data.constraint.Constraint;
+
+/**
+ * Generates the in-memory data sets used by the benchmarks. Nothing is read
+ * from or written to the database, and the same seed always generates the
+ * same data so runs are comparable.
+ */
+public class SyntheticData {
+
+    /**
+     * A Monday, so the generated weeks are aligned.
+     */
+    public static final LocalDate START = new LocalDate(2013, 1, 7);
+
+    private static final long DAY_MILLISECONDS = 24L * 60 * 60 * 1000;
+
+    private final Random random;
+
+    private final Scenario scenario = Scenario.create("benchmarks");
+
+    private final CalendarExceptionType holiday = CalendarExceptionType
+            .create("holiday", "holiday", CalendarExceptionTypeColor.DEFAULT,
+                    true);
+
+    public SyntheticData(long seed) {
+        this.random = new Random(seed);
+    }
+
+    public Scenario getScenario() {
+        return scenario;
+    }
+
+    /**
+     * A calendar working eight hours from Monday to Friday with
+     * <code>holidaysPerYear</code> random zero capacity days per year
+     */
+    public BaseCalendar calendar(int years, int holidaysPerYear) {
+        BaseCalendar result = BaseCalendar.createBasicCalendar();
+        result.setName("calendar " + random.nextInt());
+        for (int year = 0; year < years; year++) {
+            LocalDate yearStart = START.plusYears(year);
+            for (int i = 0; i < holidaysPerYear; i++) {
+                LocalDate day = yearStart.plusDays(random.nextInt(365));
+                if (result.getOwnExceptionDay(day) == null) {
+                    result.addExceptionDay(CalendarException.create(day,
+                            Capacity.zero(), holiday));
+                }
+            }
+        }
+        return result;
+    }
+
+    public Worker worker(BaseCalendar parent) {
+        Worker result = Worker.create("worker", "" + random.nextInt(), ""
+                + random.nextInt());
+        result.setCalendar(parent.newDerivedResourceCalendar());
+        result.useScenario(scenario);
+        return result;
+    }
+
+    public List<Resource> workers(int number, BaseCalendar parent) {
+        List<Resource> result = new ArrayList<Resource>();
+        for (int i = 0; i < number; i++) {
+            result.add(worker(parent));
+        }
+        return result;
+    }
+
+    public Worker limitingWorker(BaseCalendar parent) {
+        Worker result = worker(parent);
+        result.setResourceType(ResourceType.LIMITING_RESOURCE);
+        result.setLimitingResourceQueue(LimitingResourceQueue.create());
+        return result;
+    }
+
+    public Order order(BaseCalendar calendar) {
+        Order result = Order.create();
+        result.setName("order " + random.nextInt());
+        result.setInitDate(START.toDateTimeAtStartOfDay().toDate());
+        result.setCalendar(calendar);
+        result.useSchedulingDataFor(OrderVersion.createInitialVersion(scenario));
+        return result;
+    }
+
+    /**
+     * Adds a new line of <code>hours</code> to <code>order</code> and creates
+     * its task
+     */
+    public Task task(Order order, int hours) {
+        OrderLine line = OrderLine.createOrderLineWithUnfixedPercentage(hours);
+        line.setName("line " + random.nextInt());
+        order.add(line);
+        line.useSchedulingDataFor(order.getCurrentOrderVersion());
+        TaskSource taskSource = TaskSource.create(
+                line.getCurrentSchedulingDataForVersion(),
+                line.getHoursGroups());
+        Task result = Task.createTaskWithoutDatesInitialized(taskSource);
+        result.setStartDate(order.getInitDate());
+        result.initializeDatesIfNeeded();
+        return result;
+    }
+
+    /**
+     * Fills the queue of <code>limitingWorker</code> with
+     * <code>elements</code> consecutive elements separated by random gaps,
+     * each one lasting between one and five working days
+     */
+    public LimitingResourceQueue limitingQueue(Worker limitingWorker,
+            Order order, int elements) {
+        LimitingResourceQueue result = limitingWorker
+                .getLimitingResourceQueue();
+        LocalDate day = START;
+        for (int i = 0; i < elements; i++) {
+            int days = 1 + random.nextInt(5);
+            LimitingResourceQueueElement element = limitingElement(
+                    limitingWorker, order, days * 8);
+            day = day.plusDays(random.nextInt(3));
+            element.setStartDate(day);
+            element.setStartHour(0);
+            day = day.plusDays(days);
+            element.setEndDate(day);
+            element.setEndHour(0);
+            result.addLimitingResourceQueueElement(element);
+        }
+        return result;
+    }
+
+    /**
+     * Creates a not yet queued element of <code>hours</code> that can start
+     * from {@link #START}
+     */
+    public LimitingResourceQueueElement limitingElement(
+            Worker limitingWorker, Order order, int hours) {
+        SpecificResourceAllocation allocation = SpecificResourceAllocation
+                .createForLimiting(limitingWorker, task(order, hours));
+        allocation.setIntendedTotalHours(hours);
+        LimitingResourceQueueElement result = LimitingResourceQueueElement
+                .create();
+        result.setResourceAllocation(allocation);
+        result.setEarlierStartDateBecauseOfGantt(START
+                .toDateTimeAtStartOfDay().toDate());
+        return result;
+    }
+
+    /**
+     * Creates assignments of between one and eight hours for each resource on
+     * each working day of the interval, skipping a fraction of the days
+     */
+    public List<DayAssignment> dayAssignments(List<Resource> resources,
+            LocalDate start, int days) {
+        List<DayAssignment> result = new ArrayList<DayAssignment>();
+        for (Resource each : resources) {
+            for (int i = 0; i < days; i++) {
+                LocalDate day = start.plusDays(i);
+                if (day.getDayOfWeek() <= 5 && random.nextInt(4) != 0) {
+                    EffortDuration duration = hours(1 + random.nextInt(8));
+                    result.add(SpecificDayAssignment.create(day, duration,
+                            each));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Creates a Gantt graph made of <code>chains</code> independent chains of
+     * <code>chainLength</code> tasks linked by end-start dependencies. Besides,
+     * every task has a random extra dependency to a task of the previous
+     * chain, so the graph is not trivially decomposable.
+     */
+    public GanttZKDiagramGraph ganttGraph(int chains, int chainLength) {
+        GanttZKDiagramGraph result = GanttDiagramGraph.create(false,
+                new ArrayList<Constraint<GanttDate>>(),
+                new ArrayList<Constraint<GanttDate>>(), false);
+        List<List<TaskLeaf>> allChains = new ArrayList<List<TaskLeaf>>();
+        for (int i = 0; i < chains; i++) {
+            List<TaskLeaf> chain = new ArrayList<TaskLeaf>();
+            for (int j = 0; j < chainLength; j++) {
+                TaskLeaf task = ganttTask(START.plusDays(random.nextInt(30)),
+                        1 + random.nextInt(10));
+                chain.add(task);
+                result.addTopLevel(task);
+            }
+            allChains.add(chain);
+        }
+        for (int i = 0; i < chains; i++) {
+            List<TaskLeaf> chain = allChains.get(i);
+            for (int j = 1; j < chain.size(); j++) {
+                result.add(new Dependency(chain.get(j - 1), chain.get(j),
+                        DependencyType.END_START));
+            }
+            if (i > 0) {
+                List<TaskLeaf> previous = allChains.get(i - 1);
+                for (int j = 1; j < chain.size(); j++) {
+                    TaskLeaf origin = previous.get(random.nextInt(j));
+                    Dependency dependency = new Dependency(origin,
+                            chain.get(j), DependencyType.END_START);
+                    if (result.canAddDependency(dependency)) {
+                        result.add(dependency);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private TaskLeaf ganttTask(LocalDate start, int days) {
+        Date begin = start.toDateTimeAtStartOfDay().toDate();
+        DefaultFundamentalProperties properties = new DefaultFundamentalProperties(
+                "task " + random.nextInt(), begin, days * DAY_MILLISECONDS,
+                "", begin, begin, begin, BigDecimal.ZERO, BigDecimal.ZERO,
+                BigDecimal.ZERO);
+        return new TaskLeaf(properties);
+    }
+
+}
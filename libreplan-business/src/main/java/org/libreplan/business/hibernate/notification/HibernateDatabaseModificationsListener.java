@@ -24,10 +24,12 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -72,6 +74,8 @@ public class HibernateDatabaseModificationsListener implements
 
     private final ConcurrentMap<Class<?>, BlockingQueue<NotBlockingAutoUpdatedSnapshot<?>>> interested;
 
+    private final Queue<NotBlockingAutoUpdatedSnapshot<?>> snapshots = new ConcurrentLinkedQueue<NotBlockingAutoUpdatedSnapshot<?>>();
+
     private ConcurrentMap<Transaction, Dispatcher> pending = new ConcurrentHashMap<Transaction, Dispatcher>();
 
     private Set<NotBlockingAutoUpdatedSnapshot<?>> snapshotsInterestedOn(
@@ -228,7 +232,7 @@ public class HibernateDatabaseModificationsListener implements
     }
 
     private void dispatch(NotBlockingAutoUpdatedSnapshot<?> each) {
-        each.reloadNeeded(executor);
+        each.reloadNeeded();
     }
 
     @Override
@@ -240,7 +244,9 @@ public class HibernateDatabaseModificationsListener implements
         }
 
         final NotBlockingAutoUpdatedSnapshot<T> result;
-        result = new NotBlockingAutoUpdatedSnapshot<T>(name, callable);
+        result = new NotBlockingAutoUpdatedSnapshot<T>(name, callable,
+                executor);
+        snapshots.add(result);
         for (Class<?> each : reloadOn.getClassesOnWhichToReload()) {
             interested.putIfAbsent(each, emptyQueue());
             BlockingQueue<NotBlockingAutoUpdatedSnapshot<?>> queue = interested
@@ -248,10 +254,16 @@ public class HibernateDatabaseModificationsListener implements
             boolean success = queue.add(result);
             assert success : "the type of queue used must not have restricted capacity";
         }
-        result.ensureFirstLoad(executor);
         return result;
     }
 
+    @Override
+    public void loadNotLoadedSnapshots() {
+        for (NotBlockingAutoUpdatedSnapshot<?> each : snapshots) {
+            each.ensureFirstLoad();
+        }
+    }
+
     private BlockingQueue<NotBlockingAutoUpdatedSnapshot<?>> emptyQueue() {
         return new LinkedBlockingQueue<NotBlockingAutoUpdatedSnapshot<?>>();
     }
@@ -28,6 +28,16 @@ import java.util.concurrent.Callable;
  */
 public interface ISnapshotRefresherService {
 
+    /**
+     * The snapshot is not loaded until its value is asked for the first time
+     * or {@link #loadNotLoadedSnapshots()} is called
+     */
     public <T> IAutoUpdatedSnapshot<T> takeSnapshot(String name, Callable<T> callable, ReloadOn reloadOn);
 
+    /**
+     * Launches in background the first load of the snapshots not accessed
+     * yet
+     */
+    public void loadNotLoadedSnapshots();
+
 }
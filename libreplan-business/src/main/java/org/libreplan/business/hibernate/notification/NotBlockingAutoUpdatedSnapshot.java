@@ -20,7 +20,9 @@
  */
 package org.libreplan.business.hibernate.notification;
 
+import java.lang.ref.SoftReference;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicReference;
@@ -46,6 +48,8 @@ class NotBlockingAutoUpdatedSnapshot<T> implements IAutoUpdatedSnapshot<T> {
 
     private final ExecutionsReport executionsReport;
 
+    private final ExecutorService executorService;
+
     private abstract class State {
         abstract T getValue();
 
@@ -61,11 +65,16 @@ class NotBlockingAutoUpdatedSnapshot<T> implements IAutoUpdatedSnapshot<T> {
         }
     }
 
+    /**
+     * The first load is launched when the value is accessed for the first
+     * time, so snapshots not used yet don't compete with other work
+     */
     private class NotLaunchState extends State {
 
         @Override
         T getValue() {
-            throw new UnsupportedOperationException();
+            ensureFirstLoad();
+            return currentState.get().getValue();
         }
 
         @Override
@@ -93,41 +102,108 @@ class NotBlockingAutoUpdatedSnapshot<T> implements IAutoUpdatedSnapshot<T> {
         }
     }
 
+    /**
+     * The previous value is only softly reachable, so under memory pressure
+     * the garbage collector can reclaim it instead of keeping two
+     * generations of a big snapshot in the heap. If that happens the
+     * ongoing calculation is waited for.
+     */
     private class PreviousValueAndOngoingCalculation extends State {
-        private final State previousValue;
+        private final SoftReference<State> previousValue;
 
         private final Future<T> ongoingCalculation;
 
         private PreviousValueAndOngoingCalculation(State value,
                 Future<T> ongoingCalculation) {
-            Validate.notNull(value);
             Validate.notNull(ongoingCalculation);
-            this.previousValue = value;
+            this.previousValue = softReferenceTo(value);
             this.ongoingCalculation = ongoingCalculation;
         }
 
         @Override
         T getValue() {
+            State previous = previousValue.get();
+            if (previous == null) {
+                LOG.debug(name + " the previous value has been reclaimed. "
+                        + "Waiting for the ongoing calculation");
+                return getValueWithoutPrevious();
+            }
             if (!ongoingCalculation.isCancelled()
                     && ongoingCalculation.isDone()) {
-                T newValue = getValueFromFuture();
-                currentState.compareAndSet(this, new NoOngoingCalculation(
-                        newValue));
-                return newValue;
+                return getValueFromFuture(previous);
             }
             LOG.debug(name + " the ongoing calculation has not been completed. "
                     + "Returning previous value");
-            return previousValue.getValue();
+            return previous.getValue();
         }
 
-        private T getValueFromFuture() {
+        private T getValueFromFuture(State previous) {
+            T newValue;
             try {
-                return ongoingCalculation.get();
+                newValue = ongoingCalculation.get();
             } catch (Exception e) {
                 LOG.error("error creating new value for " + name
                         + ", keeping old value", e);
-                return previousValue.getValue();
+                return previous.getValue();
+            }
+            currentState.compareAndSet(this, new NoOngoingCalculation(
+                    newValue));
+            return newValue;
+        }
+
+        /**
+         * There is no previous value to return if the ongoing calculation
+         * does not finish. If it is cancelled, it has been replaced by a new
+         * one that is waited for. If it fails, the snapshot goes back to not
+         * launched, so it is calculated again now and on later accesses
+         * instead of failing until the next reload.
+         */
+        private T getValueWithoutPrevious() {
+            T newValue;
+            try {
+                newValue = ongoingCalculation.get();
+            } catch (CancellationException e) {
+                if (currentState.get() == this) {
+                    throw new RuntimeException(e);
+                }
+                LOG.debug(name + " the ongoing calculation has been replaced. "
+                        + "Waiting for the new one");
+                return currentState.get().getValue();
+            } catch (Exception e) {
+                LOG.error("error creating new value for " + name
+                        + " and the previous one has been reclaimed. "
+                        + "Calculating it again", e);
+                currentState.compareAndSet(this, new NotLaunchState());
+                return currentState.get().getValue();
+            }
+            currentState.compareAndSet(this, new NoOngoingCalculation(
+                    newValue));
+            return newValue;
+        }
+
+        /**
+         * The ongoing calculation is going to be cancelled, so the next state
+         * is built over the last calculated value instead of over this one.
+         * Otherwise a chain of states, and the values they reference, would
+         * be kept if reloads are requested faster than they are calculated.
+         */
+        @Override
+        State nextState(Future<T> future) {
+            return new PreviousValueAndOngoingCalculation(lastCalculated(),
+                    future);
+        }
+
+        private State lastCalculated() {
+            if (!ongoingCalculation.isCancelled()
+                    && ongoingCalculation.isDone()) {
+                try {
+                    return new NoOngoingCalculation(ongoingCalculation.get());
+                } catch (Exception e) {
+                    LOG.error("error creating new value for " + name
+                            + ", keeping old value", e);
+                }
             }
+            return previousValue.get();
         }
 
         @Override
@@ -155,11 +231,39 @@ class NotBlockingAutoUpdatedSnapshot<T> implements IAutoUpdatedSnapshot<T> {
         T getValue() {
             try {
                 return ongoingCalculation.get();
+            } catch (CancellationException e) {
+                if (currentState.get() == this) {
+                    throw new RuntimeException(e);
+                }
+                LOG.debug(name + " the first calculation has been replaced. "
+                        + "Waiting for the new one");
+                return currentState.get().getValue();
             } catch (Exception e) {
+                LOG.error("error creating first value for " + name, e);
+                currentState.compareAndSet(this, new NotLaunchState());
                 throw new RuntimeException(e);
             }
         }
 
+        /**
+         * There is no previous value to return meanwhile, so if the first
+         * calculation has not been completed the new one is waited for too
+         */
+        @Override
+        State nextState(Future<T> future) {
+            if (!ongoingCalculation.isCancelled()
+                    && ongoingCalculation.isDone()) {
+                try {
+                    return new PreviousValueAndOngoingCalculation(
+                            new NoOngoingCalculation(ongoingCalculation.get()),
+                            future);
+                } catch (Exception e) {
+                    LOG.error("error creating first value for " + name, e);
+                }
+            }
+            return new FirstCalculation(future);
+        }
+
         @Override
         void cancel() {
             ongoingCalculation.cancel(true);
@@ -167,11 +271,14 @@ class NotBlockingAutoUpdatedSnapshot<T> implements IAutoUpdatedSnapshot<T> {
 
     }
 
-    public NotBlockingAutoUpdatedSnapshot(String name, Callable<T> callable) {
+    public NotBlockingAutoUpdatedSnapshot(String name, Callable<T> callable,
+            ExecutorService executorService) {
         Validate.notNull(callable);
         Validate.notNull(name);
+        Validate.notNull(executorService);
         this.name = "*" + name + "*";
         this.callable = callable;
+        this.executorService = executorService;
         this.currentState = new AtomicReference<State>(new NotLaunchState());
         this.executionsReport = new ExecutionsReport();
     }
@@ -181,7 +288,11 @@ class NotBlockingAutoUpdatedSnapshot<T> implements IAutoUpdatedSnapshot<T> {
         return currentState.get().getValue();
     }
 
-    public void reloadNeeded(ExecutorService executorService) {
+    public void reloadNeeded() {
+        if (!hasBeenInitialized()) {
+            LOG.debug(name + " not loaded yet, no need to reload it");
+            return;
+        }
         Future<T> future = executorService
                 .submit(callableDecoratedWithStatistics());
         State previousState;
@@ -196,7 +307,7 @@ class NotBlockingAutoUpdatedSnapshot<T> implements IAutoUpdatedSnapshot<T> {
         previousState.cancel();
     }
 
-    public void ensureFirstLoad(ExecutorService executorService) {
+    public void ensureFirstLoad() {
         if (hasBeenInitialized()) {
             return;
         }
@@ -215,6 +326,14 @@ class NotBlockingAutoUpdatedSnapshot<T> implements IAutoUpdatedSnapshot<T> {
         return name;
     }
 
+    /**
+     * Overridden by tests in order to clear the reference as the garbage
+     * collector would do
+     */
+    <S> SoftReference<S> softReferenceTo(S value) {
+        return new SoftReference<S>(value);
+    }
+
     private boolean hasBeenInitialized() {
         return currentState.get().hasBeenInitialized();
     }
@@ -32,13 +32,16 @@ import java.util.concurrent.Callable;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.hibernate.Hibernate;
 import org.joda.time.LocalDate;
 import org.libreplan.business.advance.entities.DirectAdvanceAssignment;
+import org.libreplan.business.calendars.entities.BaseCalendar;
 import org.libreplan.business.calendars.entities.CalendarAvailability;
 import org.libreplan.business.calendars.entities.CalendarData;
 import org.libreplan.business.calendars.entities.CalendarException;
 import org.libreplan.business.common.AdHocTransactionService;
 import org.libreplan.business.common.IAdHocTransactionService;
+import org.libreplan.business.common.IOnTransaction;
 import org.libreplan.business.costcategories.daos.ICostCategoryDAO;
 import org.libreplan.business.costcategories.entities.CostCategory;
 import org.libreplan.business.externalcompanies.daos.IExternalCompanyDAO;
@@ -50,6 +53,8 @@ import org.libreplan.business.labels.entities.LabelType;
 import org.libreplan.business.orders.daos.IOrderDAO;
 import org.libreplan.business.orders.entities.Order;
 import org.libreplan.business.planner.chart.ResourceLoadChartData;
+import org.libreplan.business.planner.chart.ResourceLoadChartDataByMonth;
+import org.libreplan.business.planner.chart.ResourceLoadChartDataByMonth.IMonthCalculator;
 import org.libreplan.business.planner.daos.IDayAssignmentDAO;
 import org.libreplan.business.planner.daos.ITaskElementDAO;
 import org.libreplan.business.planner.entities.DayAssignment;
@@ -71,6 +76,7 @@ import org.libreplan.business.resources.entities.Resource;
 import org.libreplan.business.resources.entities.VirtualWorker;
 import org.libreplan.business.resources.entities.Worker;
 import org.libreplan.business.scenarios.IScenarioManager;
+import org.libreplan.business.scenarios.entities.Scenario;
 import org.libreplan.business.workreports.daos.IWorkReportLineDAO;
 import org.libreplan.business.workreports.entities.WorkReportLine;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -149,17 +155,20 @@ public class PredefinedDatabaseSnapshots {
         return ordersCodes.getValue();
     }
 
-    private IAutoUpdatedSnapshot<ResourceLoadChartData>
+    private IAutoUpdatedSnapshot<ResourceLoadChartDataByMonth>
         resourceLoadChartData;
 
-    public ResourceLoadChartData snapshotResourceLoadChartData() {
+    public ResourceLoadChartDataByMonth snapshotResourceLoadChartData() {
         return resourceLoadChartData.getValue();
     }
 
-    private IAutoUpdatedSnapshot<List<WorkReportLine>> workReportLines;
+    private IAutoUpdatedSnapshot<SortedMap<LocalDate, BigDecimal>> workReportHoursPerDay;
 
-    public List<WorkReportLine> snapshotWorkReportLines() {
-        return workReportLines.getValue();
+    /**
+     * @return the hours reported in all the work report lines grouped by day
+     */
+    public SortedMap<LocalDate, BigDecimal> snapshotWorkReportHoursPerDay() {
+        return workReportHoursPerDay.getValue();
     }
 
     private IAutoUpdatedSnapshot<Map<TaskElement,SortedMap<LocalDate, BigDecimal>>>
@@ -208,9 +217,11 @@ public class PredefinedDatabaseSnapshots {
                 calculateResourceLoadChartData(),
                 CalendarAvailability.class, CalendarException.class,
                 CalendarData.class, TaskElement.class, SpecificResourceAllocation.class,
-                GenericResourceAllocation.class, ResourceAllocation.class);
-        workReportLines = snapshot("work report lines", calculateWorkReportLines(),
-                WorkReportLine.class);
+                GenericResourceAllocation.class, ResourceAllocation.class,
+                Resource.class, Worker.class, Machine.class,
+                VirtualWorker.class);
+        workReportHoursPerDay = snapshot("work report hours per day",
+                calculateWorkReportHoursPerDay(), WorkReportLine.class);
         estimatedCostPerTask = snapshot("estimated cost per task",
                 calculateEstimatedCostPerTask(),
                 TaskElement.class, Task.class, TaskGroup.class, DayAssignment.class);
@@ -220,6 +231,14 @@ public class PredefinedDatabaseSnapshots {
                 DirectAdvanceAssignment.class);
     }
 
+    /**
+     * Launches the first load of the snapshots not used yet, so the first
+     * users using them don't have to wait
+     */
+    public void warmUpSnapshots() {
+        snapshotRefresherService.loadNotLoadedSnapshots();
+    }
+
     private <T> IAutoUpdatedSnapshot<T> snapshot(String name,
             Callable<T> callable,
             Class<?>... reloadOnChangesOf) {
@@ -398,28 +417,77 @@ public class PredefinedDatabaseSnapshots {
     @Autowired
     private IScenarioManager scenarioManager;
 
-    private Callable<ResourceLoadChartData> calculateResourceLoadChartData() {
-        return new Callable<ResourceLoadChartData>() {
+    /**
+     * The resources are loaded once, with their calendars initialized, and
+     * shared by the calculations of all the months. Each month only queries
+     * its day assignments.
+     */
+    private Callable<ResourceLoadChartDataByMonth> calculateResourceLoadChartData() {
+        return new Callable<ResourceLoadChartDataByMonth>() {
             @Override
-            public ResourceLoadChartData call() {
-
-                List<DayAssignment> dayAssignments = dayAssignmentDAO.getAllFor(
-                        scenarioManager.getCurrent(), null, null);
-                List<Resource> resources = resourceDAO.list(Resource.class);
-                return new ResourceLoadChartData(dayAssignments, resources);
+            public ResourceLoadChartDataByMonth call() {
+                final Scenario scenario = scenarioManager.getCurrent();
+                final List<Resource> resources = resourceDAO
+                        .list(Resource.class);
+                for (Resource each : resources) {
+                    initializeCalendarIfAny(each.getCalendar());
+                }
+                return new ResourceLoadChartDataByMonth(new IMonthCalculator() {
 
+                    @Override
+                    public ResourceLoadChartData calculate(
+                            LocalDate startInclusive, LocalDate endExclusive) {
+                        return calculateResourceLoadChartData(scenario,
+                                resources, startInclusive, endExclusive);
+                    }
+                });
             }
         };
     }
 
+    private void initializeCalendarIfAny(BaseCalendar calendar) {
+        if (calendar != null) {
+            Hibernate.initialize(calendar);
+            for (CalendarAvailability each : calendar
+                    .getCalendarAvailabilities()) {
+                Hibernate.initialize(each);
+            }
+            for (CalendarException each : calendar.getExceptions()) {
+                Hibernate.initialize(each);
+                Hibernate.initialize(each.getType());
+            }
+            for (CalendarData each : calendar.getCalendarDataVersions()) {
+                Hibernate.initialize(each);
+                Hibernate.initialize(each.getHoursPerDay());
+                initializeCalendarIfAny(each.getParent());
+            }
+        }
+    }
+
+    private ResourceLoadChartData calculateResourceLoadChartData(
+            final Scenario scenario, final List<Resource> resources,
+            final LocalDate startInclusive, final LocalDate endExclusive) {
+        List<DayAssignment> dayAssignments = transactionService
+                .runOnReadOnlyTransaction(new IOnTransaction<List<DayAssignment>>() {
+
+                    @Override
+                    public List<DayAssignment> execute() {
+                        return dayAssignmentDAO.getAllFor(scenario,
+                                startInclusive, endExclusive.minusDays(1));
+                    }
+                });
+        return ResourceLoadChartData.onWholeInterval(dayAssignments,
+                resources, startInclusive, endExclusive);
+    }
+
     @Autowired
     private IWorkReportLineDAO workReportLineDAO;
 
-    private Callable<List<WorkReportLine>> calculateWorkReportLines() {
-        return new Callable<List<WorkReportLine>>() {
+    private Callable<SortedMap<LocalDate, BigDecimal>> calculateWorkReportHoursPerDay() {
+        return new Callable<SortedMap<LocalDate, BigDecimal>>() {
             @Override
-            public List<WorkReportLine> call() {
-                return workReportLineDAO.list(WorkReportLine.class);
+            public SortedMap<LocalDate, BigDecimal> call() {
+                return workReportLineDAO.getHoursPerDay();
             }
         };
     }
@@ -0,0 +1,158 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2014 Igalia, S.L.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.libreplan.business.hibernate.statistics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * Records the SQL statements, entity loads and collection fetches done by
+ * Hibernate in the current thread between {@link #start()} and
+ * {@link #stop()}. It allows to find out how many queries a request or an
+ * operation triggers and which statements are repeated, as usually happens
+ * with N+1 patterns.
+ *
+ * The statements are reported by {@link QueryStatisticsInterceptor} and the
+ * loads and fetches by {@link QueryStatisticsListener}.
+ */
+public class QueryStatistics {
+
+    private static final ThreadLocal<QueryStatistics> current = new ThreadLocal<QueryStatistics>();
+
+    /**
+     * Starts recording on the current thread. If it was already recording the
+     * previous statistics are discarded.
+     */
+    public static QueryStatistics start() {
+        QueryStatistics result = new QueryStatistics();
+        current.set(result);
+        return result;
+    }
+
+    /**
+     * Stops recording on the current thread
+     *
+     * @return the recorded statistics or <code>null</code> if it was not
+     *         recording
+     */
+    public static QueryStatistics stop() {
+        QueryStatistics result = current.get();
+        current.remove();
+        if (result != null) {
+            result.finish();
+        }
+        return result;
+    }
+
+    static void statementPrepared(String sql) {
+        QueryStatistics statistics = current.get();
+        if (statistics != null) {
+            statistics.addStatement(sql);
+        }
+    }
+
+    static void entityLoaded() {
+        QueryStatistics statistics = current.get();
+        if (statistics != null) {
+            statistics.entityLoads++;
+        }
+    }
+
+    static void collectionFetched() {
+        QueryStatistics statistics = current.get();
+        if (statistics != null) {
+            statistics.collectionFetches++;
+        }
+    }
+
+    private final long startTime = System.currentTimeMillis();
+
+    private long endTime = -1;
+
+    private int statements = 0;
+
+    private int entityLoads = 0;
+
+    private int collectionFetches = 0;
+
+    private final Map<String, Integer> timesPerStatement = new HashMap<String, Integer>();
+
+    private QueryStatistics() {
+    }
+
+    private void addStatement(String sql) {
+        statements++;
+        Integer previous = timesPerStatement.get(sql);
+        timesPerStatement.put(sql, previous == null ? 1 : previous + 1);
+    }
+
+    private void finish() {
+        endTime = System.currentTimeMillis();
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public int getEntityLoads() {
+        return entityLoads;
+    }
+
+    public int getCollectionFetches() {
+        return collectionFetches;
+    }
+
+    /**
+     * Milliseconds elapsed while recording
+     */
+    public long getElapsedTime() {
+        long end = endTime < 0 ? System.currentTimeMillis() : endTime;
+        return end - startTime;
+    }
+
+    /**
+     * The <code>max</code> statements executed more times, with the number of
+     * times they were executed, starting from the most repeated one
+     */
+    public List<Entry<String, Integer>> getMostRepeatedStatements(int max) {
+        List<Entry<String, Integer>> result = new ArrayList<Entry<String, Integer>>(
+                timesPerStatement.entrySet());
+        Collections.sort(result, new Comparator<Entry<String, Integer>>() {
+            @Override
+            public int compare(Entry<String, Integer> o1,
+                    Entry<String, Integer> o2) {
+                return o2.getValue().compareTo(o1.getValue());
+            }
+        });
+        return result.subList(0, Math.min(max, result.size()));
+    }
+
+    @Override
+    public String toString() {
+        return statements + " statements, " + entityLoads
+                + " entities loaded, " + collectionFetches
+                + " collections fetched in " + getElapsedTime() + " ms";
+    }
+
+}
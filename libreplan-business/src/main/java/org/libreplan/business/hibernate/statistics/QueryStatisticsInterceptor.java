@@ -0,0 +1,38 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2014 Igalia, S.L.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.libreplan.business.hibernate.statistics;
+
+import org.hibernate.EmptyInterceptor;
+
+/**
+ * Reports to {@link QueryStatistics} the SQL statements prepared by
+ * Hibernate. It is configured as the entity interceptor of the session
+ * factory, so it is shared by all the sessions and must be stateless.
+ */
+public class QueryStatisticsInterceptor extends EmptyInterceptor {
+
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public String onPrepareStatement(String sql) {
+        QueryStatistics.statementPrepared(sql);
+        return super.onPrepareStatement(sql);
+    }
+
+}
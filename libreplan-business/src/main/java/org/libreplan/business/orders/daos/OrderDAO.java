@@ -24,11 +24,15 @@ import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.commons.lang.StringUtils;
 import org.hibernate.Criteria;
 import org.hibernate.Query;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
 import org.hibernate.criterion.Restrictions;
 import org.joda.time.LocalDate;
 import org.libreplan.business.common.IAdHocTransactionService;
@@ -49,6 +53,7 @@ import org.libreplan.business.planner.entities.Task;
 import org.libreplan.business.reports.dtos.CostExpenseSheetDTO;
 import org.libreplan.business.reports.dtos.OrderCostsPerResourceDTO;
 import org.libreplan.business.resources.entities.Criterion;
+import org.libreplan.business.resources.entities.Worker;
 import org.libreplan.business.scenarios.entities.Scenario;
 import org.libreplan.business.users.daos.IOrderAuthorizationDAO;
 import org.libreplan.business.users.daos.IUserDAO;
@@ -56,6 +61,7 @@ import org.libreplan.business.users.entities.OrderAuthorization;
 import org.libreplan.business.users.entities.OrderAuthorizationType;
 import org.libreplan.business.users.entities.User;
 import org.libreplan.business.users.entities.UserRole;
+import org.libreplan.business.workreports.entities.WorkReportLine;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.context.annotation.Scope;
@@ -75,6 +81,8 @@ import org.springframework.transaction.annotation.Transactional;
 public class OrderDAO extends IntegrationEntityDAO<Order> implements
         IOrderDAO {
 
+    private static final int ORDER_COSTS_FETCH_SIZE = 100;
+
     @Autowired
     private ITaskSourceDAO taskSourceDAO;
 
@@ -127,7 +135,7 @@ public class OrderDAO extends IntegrationEntityDAO<Order> implements
             List<Order> orders, Date startingDate, Date endingDate,
             List<Criterion> criterions) {
 
-        String strQuery = "SELECT new org.libreplan.business.reports.dtos.OrderCostsPerResourceDTO(worker, wrl) "
+        String strQuery = "SELECT worker, wrl "
                 + "FROM Worker worker, WorkReportLine wrl "
                 + "LEFT OUTER JOIN wrl.resource resource "
                 + "WHERE resource.id = worker.id ";
@@ -146,7 +154,8 @@ public class OrderDAO extends IntegrationEntityDAO<Order> implements
         // Order by
         strQuery += "ORDER BY worker.id, wrl.date";
 
-        Query query = getSession().createQuery(strQuery);
+        Query query = getSession().createQuery(strQuery).setFetchSize(
+                ORDER_COSTS_FETCH_SIZE);
 
         if (startingDate != null) {
             query.setParameter("startingDate", startingDate);
@@ -155,43 +164,66 @@ public class OrderDAO extends IntegrationEntityDAO<Order> implements
             query.setParameter("endingDate", endingDate);
         }
 
-        List<OrderCostsPerResourceDTO> list = query.list();
+        Map<String, BigDecimal> defaultPrices = getDefaultPricesByHoursTypeCode();
 
+        // The rows are scrolled and every line is evicted from the session
+        // once its values are copied to the DTO, so they are never kept in
+        // memory all together
         List<OrderCostsPerResourceDTO> filteredList = new ArrayList<OrderCostsPerResourceDTO>();
-        for (OrderCostsPerResourceDTO each : list) {
-
-            Order order = loadOrderAvoidingProxyFor(each.getOrderElement());
-
-            // Apply filtering
-            if (matchFilterCriterion(each.getOrderElement(), criterions)
-                    && isOrderContained(order, orders)) {
-
-                // Attach ordername value
-                each.setOrderName(order.getName());
-                each.setOrderCode(order.getCode());
-                // Attach calculated pricePerHour
-                BigDecimal pricePerHour = CostCategoryDAO
-                        .getPriceByResourceDateAndHourType(each.getWorker(),
-                                new LocalDate(each.getDate()), each
-                                        .getHoursTypeCode());
-                if (pricePerHour == null) {
-                    for (TypeOfWorkHours defaultprice : typeOfWorkHoursDAO
-                            .list(TypeOfWorkHours.class)) {
-                        if (defaultprice.getCode().equals(
-                                each.getHoursTypeCode())) {
-                            pricePerHour = defaultprice.getDefaultPrice();
-                        }
-                    }
+        ScrollableResults rows = query.scroll(ScrollMode.FORWARD_ONLY);
+        try {
+            while (rows.next()) {
+                WorkReportLine line = (WorkReportLine) rows.get(1);
+                OrderCostsPerResourceDTO each = new OrderCostsPerResourceDTO(
+                        (Worker) rows.get(0), line);
+                if (addCostIfMatches(each, orders, criterions, defaultPrices)) {
+                    filteredList.add(each);
                 }
-
-                each.setCostPerHour(pricePerHour);
-                each.setCost(each.getCostPerHour().multiply(each.getNumHours()));
-                filteredList.add(each);
+                getSession().evict(line);
             }
+        } finally {
+            rows.close();
         }
         return filteredList;
     }
 
+    private Map<String, BigDecimal> getDefaultPricesByHoursTypeCode() {
+        Map<String, BigDecimal> result = new HashMap<String, BigDecimal>();
+        for (TypeOfWorkHours each : typeOfWorkHoursDAO
+                .list(TypeOfWorkHours.class)) {
+            result.put(each.getCode(), each.getDefaultPrice());
+        }
+        return result;
+    }
+
+    private boolean addCostIfMatches(OrderCostsPerResourceDTO each,
+            List<Order> orders, List<Criterion> criterions,
+            Map<String, BigDecimal> defaultPrices) {
+        Order order = loadOrderAvoidingProxyFor(each.getOrderElement());
+
+        // Apply filtering
+        if (matchFilterCriterion(each.getOrderElement(), criterions)
+                && isOrderContained(order, orders)) {
+
+            // Attach ordername value
+            each.setOrderName(order.getName());
+            each.setOrderCode(order.getCode());
+            // Attach calculated pricePerHour
+            BigDecimal pricePerHour = CostCategoryDAO
+                    .getPriceByResourceDateAndHourType(each.getWorker(),
+                            new LocalDate(each.getDate()), each
+                                    .getHoursTypeCode());
+            if (pricePerHour == null) {
+                pricePerHour = defaultPrices.get(each.getHoursTypeCode());
+            }
+
+            each.setCostPerHour(pricePerHour);
+            each.setCost(each.getCostPerHour().multiply(each.getNumHours()));
+            return true;
+        }
+        return false;
+    }
+
     @Override
     public List<Order> getOrdersByReadAuthorization(User user) {
         if (user.isInRole(UserRole.ROLE_SUPERUSER)
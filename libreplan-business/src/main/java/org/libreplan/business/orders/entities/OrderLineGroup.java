@@ -30,7 +30,10 @@ import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
@@ -486,18 +489,45 @@ public class OrderLineGroup extends OrderElement implements
     }
 
     public BigDecimal getAdvancePercentageChildren(LocalDate date) {
-        Integer hours = getWorkHours();
+        return getAdvancePercentageChildren(date, getChildrenWorkHours());
+    }
+
+    /**
+     * The work hours of each child. They're calculated only once when the
+     * progress of the children is needed at several dates, since calculating
+     * them goes through all the descendants.
+     */
+    private Map<OrderElement, Integer> getChildrenWorkHours() {
+        Map<OrderElement, Integer> result = new LinkedHashMap<OrderElement, Integer>();
+        for (OrderElement orderElement : children) {
+            result.put(orderElement, orderElement.getWorkHours());
+        }
+        return result;
+    }
+
+    private BigDecimal getAdvancePercentageChildren(LocalDate date,
+            Map<OrderElement, Integer> childrenWorkHours) {
+        int hours = 0;
+        for (Integer each : childrenWorkHours.values()) {
+            hours += each;
+        }
         BigDecimal result = new BigDecimal(0);
 
         if (hours > 0) {
-            for (OrderElement orderElement : children) {
+            for (Entry<OrderElement, Integer> each : childrenWorkHours
+                    .entrySet()) {
+                Integer childHours = each.getValue();
+                if (childHours == 0) {
+                    // it doesn't contribute, no need to calculate its progress
+                    continue;
+                }
+                OrderElement orderElement = each.getKey();
                 BigDecimal childPercentage;
                 if (date == null) {
                     childPercentage = orderElement.getAdvancePercentage();
                 } else {
                     childPercentage = orderElement.getAdvancePercentage(date);
                 }
-                Integer childHours = orderElement.getWorkHours();
                 result = result.add(childPercentage.multiply(new BigDecimal(
                         childHours)));
             }
@@ -546,11 +576,12 @@ public class OrderLineGroup extends OrderElement implements
         }
 
         List<LocalDate> measurementDates = getMeasurementDates(advanceMeasurements);
+        Map<OrderElement, Integer> childrenWorkHours = getChildrenWorkHours();
         SortedSet<AdvanceMeasurement> newAdvanceMeasurements = new TreeSet<AdvanceMeasurement>(
                 new AdvanceMeasurementComparator());
         for (LocalDate localDate : measurementDates) {
-            BigDecimal value = getAdvancePercentageChildren(localDate)
-                    .multiply(new BigDecimal(100));
+            BigDecimal value = getAdvancePercentageChildren(localDate,
+                    childrenWorkHours).multiply(new BigDecimal(100));
             AdvanceMeasurement advanceMeasurement = AdvanceMeasurement.create(
                     localDate, value);
             advanceMeasurement.setAdvanceAssignment(newDirectAdvanceAssignment);
@@ -564,17 +595,11 @@ public class OrderLineGroup extends OrderElement implements
 
     private List<LocalDate> getMeasurementDates(
             List<AdvanceMeasurement> advanceMeasurements) {
-        List<LocalDate> result = new ArrayList<LocalDate>();
+        SortedSet<LocalDate> result = new TreeSet<LocalDate>();
         for (AdvanceMeasurement advanceMeasurement : advanceMeasurements) {
-            LocalDate date = advanceMeasurement.getDate();
-            if (result.indexOf(date) < 0) {
-                result.add(date);
-            }
+            result.add(advanceMeasurement.getDate());
         }
-
-        Collections.sort(result);
-
-        return result;
+        return new ArrayList<LocalDate>(result);
     }
 
     private DirectAdvanceAssignment mergeAdvanceAssignments(
@@ -93,8 +93,19 @@ public class ContiguousDaysLine<T> implements Iterable<OnDay<T>> {
                 DayAssignment.byDayComparator());
         DayAssignment max = Collections.max(assignments,
                 DayAssignment.byDayComparator());
-        ContiguousDaysLine<List<DayAssignment>> result = create(min.getDay(),
-                max.getDay().plusDays(1));
+        return byDay(assignments, min.getDay(), max.getDay().plusDays(1));
+    }
+
+    /**
+     * Like {@link #byDay(Collection)} but the line covers the whole interval,
+     * even the days without assignments. The assignments out of the interval
+     * are ignored.
+     */
+    public static ContiguousDaysLine<List<DayAssignment>> byDay(
+            Collection<? extends DayAssignment> assignments,
+            LocalDate startInclusive, LocalDate endExclusive) {
+        ContiguousDaysLine<List<DayAssignment>> result = create(
+                startInclusive, endExclusive);
         result.transformInSitu(new IValueTransformer<List<DayAssignment>, List<DayAssignment>>() {
 
             @Override
@@ -104,7 +115,10 @@ public class ContiguousDaysLine<T> implements Iterable<OnDay<T>> {
             }
         });
         for (DayAssignment each : assignments) {
-            result.get(each.getDay()).add(each);
+            LocalDate day = each.getDay();
+            if (!day.isBefore(startInclusive) && day.isBefore(endExclusive)) {
+                result.get(day).add(each);
+            }
         }
         return result;
     }
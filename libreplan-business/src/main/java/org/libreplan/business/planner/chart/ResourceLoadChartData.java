@@ -68,12 +68,36 @@ public class ResourceLoadChartData implements ILoadChartData {
     public ResourceLoadChartData(List<DayAssignment> dayAssignments,
             List<Resource> resources, LocalDate startInclusive,
             LocalDate endExclusive) {
+        this(restrictedTo(ContiguousDaysLine.byDay(dayAssignments),
+                startInclusive, endExclusive), resources);
+    }
+
+    /**
+     * Unlike
+     * {@link #ResourceLoadChartData(List, List, LocalDate, LocalDate)}, the
+     * data covers all the days of the interval, not only the ones between the
+     * first and the last assignment, so the availability is known for every
+     * day of it
+     */
+    public static ResourceLoadChartData onWholeInterval(
+            List<DayAssignment> dayAssignments, List<Resource> resources,
+            LocalDate startInclusive, LocalDate endExclusive) {
+        return new ResourceLoadChartData(ContiguousDaysLine.byDay(
+                dayAssignments, startInclusive, endExclusive), resources);
+    }
 
-        ContiguousDaysLine<List<DayAssignment>> assignments = ContiguousDaysLine
-                .byDay(dayAssignments);
+    private static ContiguousDaysLine<List<DayAssignment>> restrictedTo(
+            ContiguousDaysLine<List<DayAssignment>> assignments,
+            LocalDate startInclusive, LocalDate endExclusive) {
         if (startInclusive != null && endExclusive != null) {
-            assignments = assignments.subInterval(startInclusive, endExclusive);
+            return assignments.subInterval(startInclusive, endExclusive);
         }
+        return assignments;
+    }
+
+    private ResourceLoadChartData(
+            ContiguousDaysLine<List<DayAssignment>> assignments,
+            List<Resource> resources) {
         ContiguousDaysLine<EffortDuration> load = assignments
                 .transform(extractLoad());
 
@@ -217,12 +241,12 @@ public class ResourceLoadChartData implements ILoadChartData {
 
             private SortedMap<LocalDate, EffortDuration> filter(
                     SortedMap<LocalDate, EffortDuration> map) {
-                if (startInclusive != null) {
-                    return map.tailMap(startInclusive);
-                }
-                if (endExclusive != null) {
+                if (startInclusive == null) {
                     return map.headMap(endExclusive);
                 }
+                if (endExclusive == null) {
+                    return map.tailMap(startInclusive);
+                }
                 return map.subMap(startInclusive, endExclusive);
             }
         };
@@ -0,0 +1,135 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2014 Igalia, S.L.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.planner.chart;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.apache.commons.lang.Validate;
+import org.joda.time.LocalDate;
+import org.joda.time.Months;
+import org.libreplan.business.hibernate.notification.PredefinedDatabaseSnapshots;
+import org.libreplan.business.workingday.EffortDuration;
+
+/**
+ * Company resource load chart data calculated by months on demand. Only the
+ * months shown are calculated, so the cost depends on the viewed window and
+ * not on the whole history. The last used months are kept, so scrolling or
+ * zooming back doesn't calculate them again. At least all the months of the
+ * widest interval requested are kept, otherwise serving it would evict its
+ * own first months and they would be calculated again on every request.
+ *
+ * @see PredefinedDatabaseSnapshots
+ */
+public class ResourceLoadChartDataByMonth {
+
+    public interface IMonthCalculator {
+
+        ResourceLoadChartData calculate(LocalDate startInclusive,
+                LocalDate endExclusive);
+    }
+
+    private static final int MIN_CACHED_MONTHS = 36;
+
+    private final IMonthCalculator calculator;
+
+    private volatile int maxCachedMonths = MIN_CACHED_MONTHS;
+
+    private final Map<LocalDate, ResourceLoadChartData> months = Collections
+            .synchronizedMap(new LinkedHashMap<LocalDate, ResourceLoadChartData>(
+                    16, 0.75f, true) {
+
+                @Override
+                protected boolean removeEldestEntry(
+                        Entry<LocalDate, ResourceLoadChartData> eldest) {
+                    return size() > maxCachedMonths;
+                }
+            });
+
+    public ResourceLoadChartDataByMonth(IMonthCalculator calculator) {
+        Validate.notNull(calculator);
+        this.calculator = calculator;
+    }
+
+    public ILoadChartData on(LocalDate startInclusive, LocalDate endExclusive) {
+        Validate.notNull(startInclusive);
+        Validate.notNull(endExclusive);
+        final SortedMap<LocalDate, EffortDuration> load = new TreeMap<LocalDate, EffortDuration>();
+        final SortedMap<LocalDate, EffortDuration> overload = new TreeMap<LocalDate, EffortDuration>();
+        final SortedMap<LocalDate, EffortDuration> availability = new TreeMap<LocalDate, EffortDuration>();
+        LocalDate month = startInclusive.withDayOfMonth(1);
+        keepAtLeast(Months.monthsBetween(month, endExclusive).getMonths() + 1);
+        while (month.isBefore(endExclusive)
+                && startInclusive.isBefore(endExclusive)) {
+            ILoadChartData data = getMonth(month).on(
+                    max(month, startInclusive),
+                    min(month.plusMonths(1), endExclusive));
+            load.putAll(data.getLoad());
+            overload.putAll(data.getOverload());
+            availability.putAll(data.getAvailability());
+            month = month.plusMonths(1);
+        }
+        return new ILoadChartData() {
+
+            @Override
+            public SortedMap<LocalDate, EffortDuration> getLoad() {
+                return load;
+            }
+
+            @Override
+            public SortedMap<LocalDate, EffortDuration> getAvailability() {
+                return availability;
+            }
+
+            @Override
+            public SortedMap<LocalDate, EffortDuration> getOverload() {
+                return overload;
+            }
+        };
+    }
+
+    private synchronized void keepAtLeast(int months) {
+        if (months > maxCachedMonths) {
+            maxCachedMonths = months;
+        }
+    }
+
+    private static LocalDate max(LocalDate a, LocalDate b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static LocalDate min(LocalDate a, LocalDate b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private ResourceLoadChartData getMonth(LocalDate firstDay) {
+        ResourceLoadChartData result = months.get(firstDay);
+        if (result == null) {
+            result = calculator.calculate(firstDay, firstDay.plusMonths(1));
+            months.put(firstDay, result);
+        }
+        return result;
+    }
+
+}
@@ -24,14 +24,16 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.SortedMap;
 import java.util.TreeMap;
 
 import org.joda.time.LocalDate;
 import org.libreplan.business.calendars.entities.AvailabilityTimeLine;
+import org.libreplan.business.calendars.entities.AvailabilityTimeLine.DatePoint;
+import org.libreplan.business.calendars.entities.AvailabilityTimeLine.FixedPoint;
 import org.libreplan.business.calendars.entities.AvailabilityTimeLine.Interval;
 import org.libreplan.business.hibernate.notification.PredefinedDatabaseSnapshots;
-import org.libreplan.business.workreports.entities.WorkReportLine;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.context.annotation.Scope;
@@ -76,26 +78,43 @@ public class CompanyEarnedValueCalculator extends EarnedValueCalculator implemen
         return result;
     }
 
-    private List<WorkReportLine> filterWorkReportLinesByDate(
-            Collection<WorkReportLine> lines,
-            AvailabilityTimeLine.Interval interval) {
-        List<WorkReportLine> result = new ArrayList<WorkReportLine>();
-        for(WorkReportLine line: lines) {
-            if (interval.includes(line.getLocalDate())) {
-                result.add(line);
+    /**
+     * @return the part of <code>map</code> whose days are included in
+     *         <code>interval</code>. It's a view, so nothing is copied.
+     */
+    private static <T> SortedMap<LocalDate, T> inside(
+            SortedMap<LocalDate, T> map, AvailabilityTimeLine.Interval interval) {
+        LocalDate start = toDate(interval.getStart());
+        LocalDate end = toDate(interval.getEnd());
+        if (start != null && end != null) {
+            if (!end.isAfter(start)) {
+                // an empty interval still includes its start
+                return map.subMap(start, start.plusDays(1));
             }
+            return map.subMap(start, end);
         }
-        return result;
+        if (start != null) {
+            return map.tailMap(start);
+        }
+        if (end != null) {
+            return map.headMap(end);
+        }
+        return map;
+    }
+
+    private static LocalDate toDate(DatePoint point) {
+        if (point instanceof FixedPoint) {
+            return ((FixedPoint) point).getDate();
+        }
+        return null;
     }
 
     private void addCost(SortedMap<LocalDate, BigDecimal> currentCost,
             SortedMap<LocalDate, BigDecimal> additionalCost) {
-        for (LocalDate day : additionalCost.keySet()) {
-            if (!currentCost.containsKey(day)) {
-                currentCost.put(day, BigDecimal.ZERO);
-            }
-            currentCost.put(day, currentCost.get(day).add(
-                    additionalCost.get(day)));
+        for (Entry<LocalDate, BigDecimal> each : additionalCost.entrySet()) {
+            BigDecimal previous = currentCost.get(each.getKey());
+            currentCost.put(each.getKey(), previous == null ? BigDecimal.ZERO
+                    .add(each.getValue()) : previous.add(each.getValue()));
         }
     }
 
@@ -107,38 +126,24 @@ public class CompanyEarnedValueCalculator extends EarnedValueCalculator implemen
         }
 
         BigDecimal accumulatedResult = BigDecimal.ZERO;
-        for (LocalDate day : map.keySet()) {
-            BigDecimal value = map.get(day);
-            accumulatedResult = accumulatedResult.add(value);
-            result.put(day, accumulatedResult);
+        for (Entry<LocalDate, BigDecimal> each : map.entrySet()) {
+            accumulatedResult = accumulatedResult.add(each.getValue());
+            result.put(each.getKey(), accumulatedResult);
         }
 
         return result;
     }
 
+    /**
+     * The hours reported are already grouped by day in a snapshot that is
+     * refreshed when the work reports change, so only the days inside the
+     * interval have to be accumulated
+     */
     @Override
     public SortedMap<LocalDate, BigDecimal> calculateActualCostWorkPerformed(
             Interval interval) {
-        SortedMap<LocalDate, BigDecimal> result = new TreeMap<LocalDate, BigDecimal>();
-        Collection<WorkReportLine> workReportLines = filterWorkReportLinesByDate(
-                databaseSnapshots.snapshotWorkReportLines(),
-                interval);
-
-        if (workReportLines.isEmpty()) {
-            return result;
-        }
-
-        for (WorkReportLine workReportLine : workReportLines) {
-            LocalDate day = new LocalDate(workReportLine.getDate());
-            BigDecimal cost = workReportLine.getEffort()
-                    .toHoursAsDecimalWithScale(2);
-
-            if (!result.containsKey(day)) {
-                result.put(day, BigDecimal.ZERO);
-            }
-            result.put(day, result.get(day).add(cost));
-        }
-        return accumulateResult(result);
+        return accumulateResult(inside(
+                databaseSnapshots.snapshotWorkReportHoursPerDay(), interval));
     }
 
     @Override
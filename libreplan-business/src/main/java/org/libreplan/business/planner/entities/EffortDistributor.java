@@ -35,7 +35,6 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 
-import org.apache.commons.collections.ComparatorUtils;
 import org.apache.commons.lang.Validate;
 import org.joda.time.LocalDate;
 import org.libreplan.business.calendars.entities.Capacity;
@@ -221,7 +220,8 @@ public class EffortDistributor {
         }
 
         ResourceWithAvailableCapacity withAvailableCapacityOn(PartialDay day,
-                IAssignedEffortForResource assignedEffort) {
+                IAssignedEffortForResource assignedEffort,
+                boolean alreadyPicked) {
             EffortDuration allCapacityForDay = calendar
                     .getCapacityOn(PartialDay.wholeDay(day.getDate()));
             EffortDuration capacity = calendar.getCapacityOn(day);
@@ -236,7 +236,8 @@ public class EffortDistributor {
 
             EffortDuration available = capacity.minus(min(assignedInterfering,
                     capacity));
-            return new ResourceWithAvailableCapacity(resource, available);
+            return new ResourceWithAvailableCapacity(resource, available,
+                    alreadyPicked);
         }
 
         Capacity getAvailableCapacityOn(PartialDay day,
@@ -250,22 +251,21 @@ public class EffortDistributor {
 
     }
 
-    /**
-     * Note: this class has a natural ordering that is inconsistent with equals.
-     */
-    private static class ResourceWithAvailableCapacity implements
-            Comparable<ResourceWithAvailableCapacity> {
+    private static class ResourceWithAvailableCapacity {
 
         private final Resource resource;
 
         private final EffortDuration available;
 
+        private final boolean alreadyPicked;
+
         public ResourceWithAvailableCapacity(Resource resource,
-                EffortDuration available) {
+                EffortDuration available, boolean alreadyPicked) {
             Validate.notNull(resource);
             Validate.notNull(available);
             this.resource = resource;
             this.available = available;
+            this.alreadyPicked = alreadyPicked;
         }
 
         public ResourceWithAssignedDuration doBiggestAssignationPossible(
@@ -274,33 +274,21 @@ public class EffortDistributor {
                     remaining, available), resource);
         }
 
-        @Override
-        public int compareTo(ResourceWithAvailableCapacity o) {
-            return available.compareTo(o.available);
-        }
-
-        @SuppressWarnings("unchecked")
-        static Comparator<ResourceWithAvailableCapacity> getComparatorConsidering(
-                final Set<Resource> lastResourcesUsed) {
-            return ComparatorUtils.chainedComparator(
-                    new Comparator<ResourceWithAvailableCapacity>() {
-
-                        @Override
-                        public int compare(ResourceWithAvailableCapacity o1,
-                                ResourceWithAvailableCapacity o2) {
-                            boolean resource1Used = lastResourcesUsed
-                                    .contains(o1.resource);
-                            boolean resource2Used = lastResourcesUsed
-                                    .contains(o2.resource);
-                            return asInt(resource1Used) - asInt(resource2Used);
-                        }
+        /**
+         * The resources already picked go first and then the ones with more
+         * available capacity. It's inconsistent with equals.
+         */
+        static final Comparator<ResourceWithAvailableCapacity> FROM_MORE_DESIRABLE_TO_LESS = new Comparator<ResourceWithAvailableCapacity>() {
 
-                        int asInt(boolean b) {
-                            return b ? 1 : 0;
-                        }
-
-                    }, ComparatorUtils.naturalComparator());
-        }
+            @Override
+            public int compare(ResourceWithAvailableCapacity o1,
+                    ResourceWithAvailableCapacity o2) {
+                if (o1.alreadyPicked != o2.alreadyPicked) {
+                    return o1.alreadyPicked ? -1 : 1;
+                }
+                return o2.available.compareTo(o1.available);
+            }
+        };
 
     }
 
@@ -312,6 +300,13 @@ public class EffortDistributor {
 
     private Set<Resource> resourcesAlreadyPicked = new HashSet<Resource>();
 
+    /**
+     * The resources assignable on a day don't change while distributing, and
+     * they are asked for by both {@link #getCapacityAt(PartialDay)} and
+     * {@link #distributeForDay(PartialDay, EffortDuration)}
+     */
+    private final Map<LocalDate, List<ResourceWithDerivedData>> resourcesAssignableByDay = new HashMap<LocalDate, List<ResourceWithDerivedData>>();
+
     public EffortDistributor(List<Resource> resources,
             IAssignedEffortForResource assignedHoursForResource) {
         this(resources, assignedHoursForResource, null);
@@ -371,6 +366,18 @@ public class EffortDistributor {
     }
 
     private List<ResourceWithDerivedData> resourcesAssignableAt(LocalDate day) {
+        List<ResourceWithDerivedData> result = resourcesAssignableByDay
+                .get(day);
+        if (result == null) {
+            result = Collections
+                    .unmodifiableList(calculateResourcesAssignableAt(day));
+            resourcesAssignableByDay.put(day, result);
+        }
+        return result;
+    }
+
+    private List<ResourceWithDerivedData> calculateResourcesAssignableAt(
+            LocalDate day) {
         List<ResourceWithDerivedData> result = new ArrayList<ResourceWithDerivedData>();
         for (ResourceWithDerivedData each : resources) {
             if (resourceSelector.isSelectable(each.resource, day)) {
@@ -406,11 +413,11 @@ public class EffortDistributor {
         List<ResourceWithAvailableCapacity> result = new ArrayList<ResourceWithAvailableCapacity>();
         for (ResourceWithDerivedData each : resourcesAssignable) {
             result.add(each.withAvailableCapacityOn(day,
-                    assignedEffortForResource));
+                    assignedEffortForResource,
+                    resourcesAlreadyPicked.contains(each.resource)));
         }
-        Collections.sort(result, Collections
-                .reverseOrder(ResourceWithAvailableCapacity
-                        .getComparatorConsidering(resourcesAlreadyPicked)));
+        Collections.sort(result,
+                ResourceWithAvailableCapacity.FROM_MORE_DESIRABLE_TO_LESS);
         return result;
     }
 
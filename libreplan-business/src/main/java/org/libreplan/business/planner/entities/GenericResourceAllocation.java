@@ -22,6 +22,7 @@
 package org.libreplan.business.planner.entities;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -32,6 +33,7 @@ import java.util.Set;
 
 import org.apache.commons.lang.Validate;
 import javax.validation.Valid;
+import org.joda.time.Days;
 import org.joda.time.LocalDate;
 import org.libreplan.business.calendars.entities.AvailabilityTimeLine;
 import org.libreplan.business.calendars.entities.Capacity;
@@ -190,14 +192,65 @@ public class GenericResourceAllocation extends
         return Collections.unmodifiableSet(criterions);
     }
 
+    /**
+     * The same resource and day are asked about many times while distributing
+     * the effort of an allocation, so the answers are remembered. A new
+     * selector must be created for each allocation since the satisfactions
+     * of the resources can change between them.
+     */
     private final class ResourcesSatisfyingCriterionsSelector implements
             IResourceSelector {
 
+        private final ICriterion compoundCriterion = CriterionCompounder
+                .buildAnd(criterions).getResult();
+
+        private final Map<Resource, SelectableDays> selectableDays =
+                new HashMap<Resource, SelectableDays>();
+
         @Override
         public boolean isSelectable(Resource resource, LocalDate day) {
-            ICriterion compoundCriterion = CriterionCompounder.buildAnd(
-                    criterions).getResult();
-            return compoundCriterion.isSatisfiedBy(resource, day);
+            SelectableDays days = selectableDays.get(resource);
+            if (days == null) {
+                days = new SelectableDays(resource, day);
+                selectableDays.put(resource, days);
+            }
+            return days.isSelectable(day);
+        }
+
+        private class SelectableDays {
+
+            private final Resource resource;
+
+            private final LocalDate origin;
+
+            private final BitSet evaluated = new BitSet();
+
+            private final BitSet satisfied = new BitSet();
+
+            SelectableDays(Resource resource, LocalDate origin) {
+                this.resource = resource;
+                this.origin = origin;
+            }
+
+            boolean isSelectable(LocalDate day) {
+                int index = indexFor(day);
+                if (!evaluated.get(index)) {
+                    evaluated.set(index);
+                    satisfied.set(index,
+                            compoundCriterion.isSatisfiedBy(resource, day));
+                }
+                return satisfied.get(index);
+            }
+
+            /**
+             * Days after the origin take the even indexes and days before it
+             * the odd ones, so both directions can be stored in a
+             * {@link BitSet}
+             */
+            private int indexFor(LocalDate day) {
+                int days = Days.daysBetween(origin, day).getDays();
+                return days >= 0 ? 2 * days : -2 * days - 1;
+            }
         }
     }
 
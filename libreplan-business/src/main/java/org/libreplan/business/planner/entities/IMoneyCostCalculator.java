@@ -22,6 +22,7 @@ package org.libreplan.business.planner.entities;
 import java.math.BigDecimal;
 
 import org.libreplan.business.orders.entities.OrderElement;
+import org.libreplan.business.planner.entities.MoneyCostCalculator.MoneyCost;
 
 /**
  * Interface to calculate the money cost of a {@link TaskElement}.
@@ -60,6 +61,22 @@ public interface IMoneyCostCalculator {
      */
     void resetMoneyCostMap();
 
+    /**
+     * Calculates at once the money cost of <code>orderElement</code> and all
+     * its descendants and keeps it in the map. The work report lines of the
+     * whole tree are retrieved with a single query.
+     */
+    void calculateMoneyCostOfTree(OrderElement orderElement);
+
+    /**
+     * Returns the hours and the expenses money cost of
+     * <code>orderElement</code> if both are already in the map, so they can be
+     * got without accessing the database. Otherwise, returns <code>null</code>.
+     * As the map is shared and could be reseted at any moment, the value is
+     * read at once instead of checking first if it is calculated.
+     */
+    MoneyCost getCalculatedMoneyCost(OrderElement orderElement);
+
     /**
      * Returns the money cost of a {@link OrderElement} taking into account all
      * its children.<br />
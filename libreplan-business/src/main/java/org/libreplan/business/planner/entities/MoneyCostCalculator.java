@@ -21,11 +21,15 @@ package org.libreplan.business.planner.entities;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 
-import org.libreplan.business.costcategories.daos.IHourCostDAO;
+import org.libreplan.business.costcategories.daos.CostCategoryDAO;
 import org.libreplan.business.orders.entities.OrderElement;
 import org.libreplan.business.workreports.daos.IWorkReportLineDAO;
 import org.libreplan.business.workreports.entities.WorkReportLine;
@@ -41,7 +45,9 @@ import org.springframework.stereotype.Component;
  * the cost category of each resource in the different dates.<br />
  *
  * Money cost is stored in a map that will be cached in memeroy. This map could
- * be reseted when needed with method {@code resetMoneyCostMap}.
+ * be reseted when needed with method {@code resetMoneyCostMap}. As this bean is
+ * shared, the map is synchronized and only keeps the
+ * {@link #MAX_CACHED_ORDER_ELEMENTS} order elements used more recently.
  *
  * @author Manuel Rego Casasnovas <mrego@igalia.com>
  * @author Susana Montes Pedreira <smontes@wirelessgalicia.com>
@@ -53,19 +59,48 @@ public class MoneyCostCalculator implements IMoneyCostCalculator {
     @Autowired
     private IWorkReportLineDAO workReportLineDAO;
 
-    @Autowired
-    private IHourCostDAO hourCostDAO;
+    private static final int MAX_CACHED_ORDER_ELEMENTS = 10000;
+
+    private volatile Map<OrderElement, MoneyCost> moneyCostTotalMap = createMoneyCostMap();
+
+    private static Map<OrderElement, MoneyCost> createMoneyCostMap() {
+        return Collections
+                .synchronizedMap(new LinkedHashMap<OrderElement, MoneyCost>(
+                        16, 0.75f, true) {
+
+                    private static final long serialVersionUID = 1L;
+
+                    @Override
+                    protected boolean removeEldestEntry(
+                            Entry<OrderElement, MoneyCost> eldest) {
+                        return size() > MAX_CACHED_ORDER_ELEMENTS;
+                    }
+                });
+    }
+
+    /**
+     * Money cost of an {@link OrderElement} because of hours and because of
+     * expenses. Any of them is <code>null</code> while it is not calculated.
+     */
+    public static class MoneyCost {
 
-    private Map<OrderElement, MoneyCost> moneyCostTotalMap = new HashMap<OrderElement, MoneyCost>();
+        public static MoneyCost create(BigDecimal costOfHours,
+                BigDecimal costOfExpenses) {
+            return new MoneyCost(costOfHours, costOfExpenses);
+        }
 
-    private class MoneyCost {
         private BigDecimal costOfHours;
         private BigDecimal costOfExpenses;
 
-        public MoneyCost() {
+        private MoneyCost() {
+        }
+
+        private MoneyCost(BigDecimal costOfHours, BigDecimal costOfExpenses) {
+            this.costOfHours = costOfHours;
+            this.costOfExpenses = costOfExpenses;
         }
 
-        public void setCostOfHours(BigDecimal costOfHours) {
+        private void setCostOfHours(BigDecimal costOfHours) {
             this.costOfHours = costOfHours;
         }
 
@@ -73,7 +108,7 @@ public class MoneyCostCalculator implements IMoneyCostCalculator {
             return costOfHours;
         }
 
-        public void setCostOfExpenses(BigDecimal costOfExpenses) {
+        private void setCostOfExpenses(BigDecimal costOfExpenses) {
             this.costOfExpenses = costOfExpenses;
         }
 
@@ -81,32 +116,106 @@ public class MoneyCostCalculator implements IMoneyCostCalculator {
             return costOfExpenses;
         }
 
+        public BigDecimal getTotal() {
+            return sum(costOfHours, costOfExpenses);
+        }
+
+        private boolean isCalculated() {
+            return costOfHours != null && costOfExpenses != null;
+        }
+
+    }
+
+    private static BigDecimal sum(BigDecimal costOfHours,
+            BigDecimal costOfExpenses) {
+        BigDecimal result = BigDecimal.ZERO.setScale(2);
+        if (costOfHours != null) {
+            result = result.add(costOfHours);
+        }
+        if (costOfExpenses != null) {
+            result = result.add(costOfExpenses);
+        }
+        return result.setScale(2, RoundingMode.HALF_UP);
     }
 
     @Override
     public void resetMoneyCostMap() {
-        moneyCostTotalMap = new HashMap<OrderElement, MoneyCost>();
+        moneyCostTotalMap = createMoneyCostMap();
+    }
+
+    @Override
+    public void calculateMoneyCostOfTree(OrderElement orderElement) {
+        getHoursMoneyCost(orderElement);
+        getExpensesMoneyCost(orderElement);
+        for (OrderElement each : orderElement.getAllChildren()) {
+            getExpensesMoneyCost(each);
+        }
+    }
+
+    @Override
+    public MoneyCost getCalculatedMoneyCost(OrderElement orderElement) {
+        MoneyCost moneyCost = moneyCostTotalMap.get(orderElement);
+        if (moneyCost == null || !moneyCost.isCalculated()) {
+            return null;
+        }
+        return MoneyCost.create(moneyCost.getCostOfHours(),
+                moneyCost.getCostOfExpenses());
     }
 
     @Override
     public BigDecimal getTotalMoneyCost(OrderElement orderElement) {
-        BigDecimal result = BigDecimal.ZERO.setScale(2);
-        BigDecimal moneyCostOfHours = getHoursMoneyCost(orderElement);
-        if (moneyCostOfHours != null) {
-            result = result.add(moneyCostOfHours);
+        return sum(getHoursMoneyCost(orderElement),
+                getExpensesMoneyCost(orderElement));
+    }
+
+    @Override
+    public BigDecimal getHoursMoneyCost(OrderElement orderElement) {
+        BigDecimal cached = getCachedCostOfHours(orderElement);
+        if (cached != null) {
+            return cached;
         }
-        BigDecimal moneyCostOfExpenses = getExpensesMoneyCost(orderElement);
-        if (moneyCostOfExpenses != null) {
-            result = result.add(moneyCostOfExpenses);
+        return getHoursMoneyCost(orderElement,
+                findWorkReportLinesByOrderElementId(orderElement));
+    }
+
+    private BigDecimal getCachedCostOfHours(OrderElement orderElement) {
+        MoneyCost moneyCost = moneyCostTotalMap.get(orderElement);
+        return moneyCost != null ? moneyCost.getCostOfHours() : null;
+    }
+
+    /**
+     * Retrieves with a single query the lines of <code>orderElement</code> and
+     * all its descendants, instead of one query per element
+     */
+    private Map<Long, List<WorkReportLine>> findWorkReportLinesByOrderElementId(
+            OrderElement orderElement) {
+        List<Long> ids = new ArrayList<Long>();
+        addIdIfSaved(ids, orderElement);
+        for (OrderElement each : orderElement.getAllChildren()) {
+            addIdIfSaved(ids, each);
         }
-        if (result != null) {
-            result = result.setScale(2, RoundingMode.HALF_UP);
+
+        Map<Long, List<WorkReportLine>> result = new HashMap<Long, List<WorkReportLine>>();
+        for (WorkReportLine each : workReportLineDAO.findByOrderElementIds(ids)) {
+            Long id = each.getOrderElement().getId();
+            List<WorkReportLine> lines = result.get(id);
+            if (lines == null) {
+                lines = new ArrayList<WorkReportLine>();
+                result.put(id, lines);
+            }
+            lines.add(each);
         }
         return result;
     }
 
-    @Override
-    public BigDecimal getHoursMoneyCost(OrderElement orderElement) {
+    private static void addIdIfSaved(List<Long> ids, OrderElement orderElement) {
+        if (orderElement.getId() != null) {
+            ids.add(orderElement.getId());
+        }
+    }
+
+    private BigDecimal getHoursMoneyCost(OrderElement orderElement,
+            Map<Long, List<WorkReportLine>> linesByOrderElementId) {
         MoneyCost moneyCost = moneyCostTotalMap.get(orderElement);
         if (moneyCost != null) {
             BigDecimal result = moneyCost.getCostOfHours();
@@ -117,11 +226,15 @@ public class MoneyCostCalculator implements IMoneyCostCalculator {
 
         BigDecimal result = BigDecimal.ZERO.setScale(2);
         for (OrderElement each : orderElement.getChildren()) {
-            result = result.add(getHoursMoneyCost(each));
+            result = result.add(getHoursMoneyCost(each, linesByOrderElementId));
         }
 
-        result = result.add(getMoneyCostFromOwnWorkReportLines(orderElement))
-                .setScale(2, RoundingMode.HALF_UP);
+        List<WorkReportLine> ownLines = linesByOrderElementId.get(orderElement
+                .getId());
+        if (ownLines != null) {
+            result = result.add(getMoneyCostFromOwnWorkReportLines(ownLines));
+        }
+        result = result.setScale(2, RoundingMode.HALF_UP);
 
         if (moneyCost == null) {
             moneyCost = new MoneyCost();
@@ -131,17 +244,20 @@ public class MoneyCostCalculator implements IMoneyCostCalculator {
         return result;
     }
 
-    private BigDecimal getMoneyCostFromOwnWorkReportLines(OrderElement orderElement) {
-        List<WorkReportLine> workReportLines = workReportLineDAO
-                .findByOrderElement(orderElement);
-
+    /**
+     * The price of each line is looked up in the cost category assignments of
+     * its resource, which are loaded once per resource, instead of querying
+     * the database for each line
+     */
+    private BigDecimal getMoneyCostFromOwnWorkReportLines(
+            List<WorkReportLine> workReportLines) {
         BigDecimal result = BigDecimal.ZERO.setScale(2);
         for (WorkReportLine workReportLine : workReportLines) {
-            BigDecimal priceCost = hourCostDAO
-                    .getPriceCostFromResourceDateAndType(
+            BigDecimal priceCost = CostCategoryDAO
+                    .getPriceByResourceDateAndHourType(
                             workReportLine.getResource(),
                             workReportLine.getLocalDate(),
-                            workReportLine.getTypeOfWorkHours());
+                            workReportLine.getTypeOfWorkHours().getCode());
 
             // If cost undefined via CostCategory get it from type
             if (priceCost == null) {
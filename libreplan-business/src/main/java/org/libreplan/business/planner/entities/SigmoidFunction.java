@@ -25,23 +25,28 @@ import java.util.List;
 import org.apache.commons.lang.Validate;
 import org.joda.time.LocalDate;
 import org.libreplan.business.calendars.entities.BaseCalendar;
+import org.libreplan.business.calendars.entities.ICalendar;
 import org.libreplan.business.workingday.EffortDuration;
 import org.libreplan.business.workingday.IntraDayDate.PartialDay;
 
 /**
+ * Distributes the hours of an allocation following a sigmoid curve.
+ *
+ * The hours for each day are calculated using millionths of hour, the same
+ * precision previously used with {@link BigDecimal}, so the calculation can be
+ * done with primitive longs.
  *
  * @author Diego Pino Garcia<dpino@igalia.com>
  *
  */
 public class SigmoidFunction extends AssignmentFunction {
 
-    private static final int PRECISSION = 6;
+    private static final long MICROHOURS_PER_HOUR = 1000000;
 
-    private static final int ROUND_MODE = BigDecimal.ROUND_HALF_EVEN;
+    private static final int SECONDS_PER_HOUR = 3600;
 
     // Fragmentation of hours (0.25, 0.50, 0.75, 1). 1 indicates no fragmentation
-    private static final BigDecimal HOUR_FRAGMENTATION = BigDecimal
-            .valueOf(0.25);
+    private static final long HOUR_FRAGMENTATION = MICROHOURS_PER_HOUR / 4;
 
     public static SigmoidFunction create() {
         return create(new SigmoidFunction());
@@ -68,38 +73,80 @@ public class SigmoidFunction extends AssignmentFunction {
 
         final LocalDate previousEndDate = resourceAllocation.getEndDate();
 
-        EffortDuration capacity;
         BaseCalendar calendar = resourceAllocation.getTask().getCalendar();
         int daysDuration = daysWithAllocatedHours(resourceAllocation).size();
 
-        // Calculate hours per day and round values
-        BigDecimal[] hoursToAllocatePerDay = generateHoursToAllocateFor(daysDuration, totalHours);
-        hoursToAllocatePerDay = roundValues(hoursToAllocatePerDay, HOUR_FRAGMENTATION);
+        int[] secondsToAllocatePerDay = secondsToAllocatePerDay(daysDuration,
+                totalHours);
+        assert (secondsToAllocatePerDay.length == daysDuration);
 
-        // Calculate reminder (difference between totalHours and sum of hours calculated)
-        BigDecimal totalHoursToAllocate = sumHoursPerDay(hoursToAllocatePerDay);
-        assert(totalHoursToAllocate.compareTo(BigDecimal.valueOf(totalHours)) <= 0);
-        BigDecimal remindingHours = BigDecimal.valueOf(totalHours).subtract(totalHoursToAllocate);
-        allocateRemindingHours(hoursToAllocatePerDay, remindingHours);
-        avoidZeroHoursInDays(hoursToAllocatePerDay);
+        if (resourceAllocation instanceof SpecificResourceAllocation) {
+            allocateConsecutiveDaysAtOnce(resourceAllocation, calendar, start,
+                    secondsToAllocatePerDay);
+        } else {
+            allocateDayByDay(resourceAllocation, calendar, start,
+                    secondsToAllocatePerDay);
+        }
+        Validate.isTrue(resourceAllocation.getEndDate().equals(previousEndDate));
+    }
 
-        assert(hoursToAllocatePerDay.length == daysDuration);
+    /**
+     * Each day is limited by the capacity of the allocation on it, which for a
+     * generic allocation depends on the resources satisfying the criteria
+     * that day and their other assignments. So the days are allocated one by
+     * one.
+     */
+    private void allocateDayByDay(ResourceAllocation<?> resourceAllocation,
+            BaseCalendar calendar, LocalDate start,
+            int[] secondsToAllocatePerDay) {
+        LocalDate day = new LocalDate(start);
+        int i = 0;
+        while (i < secondsToAllocatePerDay.length) {
+            EffortDuration capacity = calendar.getCapacityOn(PartialDay
+                    .wholeDay(day));
+            if (!capacity.isZero()) {
+                EffortDuration hours = EffortDuration
+                        .seconds(secondsToAllocatePerDay[i]);
+                resourceAllocation.withPreviousAssociatedResources()
+                        .onInterval(day, day.plusDays(1)).allocate(hours);
+                i++;
+            }
+            day = day.plusDays(1);
+        }
+    }
 
-        // Starting from startDate do allocation, one slot of hours per day in resource
+    /**
+     * A specific allocation can't get more than the capacity with overtime of
+     * its resource each day, so the days are limited by it beforehand and
+     * consecutive days are allocated at once
+     */
+    private void allocateConsecutiveDaysAtOnce(
+            ResourceAllocation<?> resourceAllocation, BaseCalendar calendar,
+            LocalDate start, int[] secondsToAllocatePerDay) {
+        ICalendar allocationCalendar = resourceAllocation
+                .getAllocationCalendar();
+        List<EffortDuration> consecutiveDays = new ArrayList<EffortDuration>();
+        LocalDate firstConsecutiveDay = start;
         LocalDate day = new LocalDate(start);
-        EffortDuration hours = EffortDuration.zero();
         int i = 0;
-        while (i < hoursToAllocatePerDay.length) {
-            hours = EffortDuration
-                    .fromHoursAsBigDecimal(hoursToAllocatePerDay[i]);
-            capacity = calendar.getCapacityOn(PartialDay.wholeDay(day));
-            if (!EffortDuration.zero().equals(capacity)) {
-                allocate(resourceAllocation, day, hours);
+        while (i < secondsToAllocatePerDay.length) {
+            EffortDuration capacity = calendar.getCapacityOn(PartialDay
+                    .wholeDay(day));
+            if (capacity.isZero()) {
+                allocate(resourceAllocation, firstConsecutiveDay,
+                        consecutiveDays);
+                consecutiveDays.clear();
+                firstConsecutiveDay = day.plusDays(1);
+            } else {
+                EffortDuration hours = EffortDuration
+                        .seconds(secondsToAllocatePerDay[i]);
+                consecutiveDays.add(allocationCalendar.getCapacityWithOvertime(
+                        day).limitDuration(hours));
                 i++;
             }
             day = day.plusDays(1);
         }
-        Validate.isTrue(resourceAllocation.getEndDate().equals(previousEndDate));
+        allocate(resourceAllocation, firstConsecutiveDay, consecutiveDays);
     }
 
     private List<BigDecimal> daysWithAllocatedHours(
@@ -119,6 +166,47 @@ public class SigmoidFunction extends AssignmentFunction {
         return result;
     }
 
+    private void allocate(ResourceAllocation<?> resourceAllocation,
+            LocalDate startInclusive, List<EffortDuration> effortPerDay) {
+        if (effortPerDay.isEmpty()) {
+            return;
+        }
+        LocalDate endExclusive = startInclusive.plusDays(effortPerDay.size());
+        resourceAllocation.withPreviousAssociatedResources()
+                .onInterval(startInclusive, endExclusive)
+                .allocate(effortPerDay);
+    }
+
+    /**
+     * Calculates the seconds to allocate for each day so the accumulated
+     * hours follow a sigmoid curve. The hours of each day are a multiple of
+     * {@link #HOUR_FRAGMENTATION} and the sum of all of them is
+     * <code>totalHours</code>.
+     *
+     * @param days
+     *            the number of days with capacity to distribute the hours on
+     * @param totalHours
+     * @return an array of <code>days</code> length
+     */
+    public static int[] secondsToAllocatePerDay(int days, int totalHours) {
+        if (days == 0) {
+            return new int[0];
+        }
+        long[] hoursToAllocatePerDay = generateHoursToAllocateFor(days,
+                totalHours);
+        roundValues(hoursToAllocatePerDay);
+
+        // Calculate reminder (difference between totalHours and sum of hours
+        // calculated)
+        long totalHoursToAllocate = sum(hoursToAllocatePerDay);
+        long remindingHours = totalHours * MICROHOURS_PER_HOUR
+                - totalHoursToAllocate;
+        assert (remindingHours >= 0);
+        allocateRemindingHours(hoursToAllocatePerDay, remindingHours);
+        avoidZeroHoursInDays(hoursToAllocatePerDay);
+        return asSeconds(hoursToAllocatePerDay);
+    }
+
     /**
      * Days with zero hours can occur at the beginning days.
      *
@@ -128,142 +216,105 @@ public class SigmoidFunction extends AssignmentFunction {
      *
      * @param hoursToAllocatePerDay
      */
-    private void avoidZeroHoursInDays(BigDecimal[] hoursToAllocatePerDay) {
+    private static void avoidZeroHoursInDays(long[] hoursToAllocatePerDay) {
         int length = hoursToAllocatePerDay.length;
         for (int i = 0; i < length; i++) {
-            BigDecimal hours = hoursToAllocatePerDay[i];
-            if (hours.doubleValue() != 0) {
+            if (hoursToAllocatePerDay[i] != 0) {
                 return;
             }
-            if (i + 1 <= length) {
-                BigDecimal next = hoursToAllocatePerDay[i + 1];
-                hoursToAllocatePerDay[i + 1] = next
-                        .subtract(HOUR_FRAGMENTATION);
-                hoursToAllocatePerDay[i] = hours.add(HOUR_FRAGMENTATION);
+            if (i + 1 < length) {
+                hoursToAllocatePerDay[i + 1] -= HOUR_FRAGMENTATION;
+                hoursToAllocatePerDay[i] += HOUR_FRAGMENTATION;
             }
         }
     }
 
-    private void allocateRemindingHours(BigDecimal[] hoursToAllocatePerDay, BigDecimal remindingHours) {
+    private static void allocateRemindingHours(long[] hoursToAllocatePerDay,
+            long remindingHours) {
         final int length = hoursToAllocatePerDay.length;
 
         // Add reminding hours to best fit in a way that the distribution of
         // hours grows continuously
         for (int i = 0; i < length - 1; i++) {
-            BigDecimal current = hoursToAllocatePerDay[i];
-            BigDecimal next = hoursToAllocatePerDay[i+1];
+            long current = hoursToAllocatePerDay[i];
+            long next = hoursToAllocatePerDay[i + 1];
 
-            if (current.add(remindingHours).compareTo(next) <= 0) {
-                hoursToAllocatePerDay[i] = current.add(remindingHours);
+            if (current + remindingHours <= next) {
+                hoursToAllocatePerDay[i] = current + remindingHours;
                 return;
             }
         }
 
         // Add reminding hours to last day
-        BigDecimal lastDay = hoursToAllocatePerDay[length - 1];
-        hoursToAllocatePerDay[length - 1] = lastDay.add(remindingHours);
+        hoursToAllocatePerDay[length - 1] += remindingHours;
     }
 
-    private void allocate(ResourceAllocation<?> resourceAllocation,
-            LocalDate day, EffortDuration hours) {
-        final LocalDate nextDay = day.plusDays(1);
-        resourceAllocation.withPreviousAssociatedResources()
-                .onInterval(day, nextDay).allocate(hours);
+    /**
+     * Truncates each value to a multiple of {@link #HOUR_FRAGMENTATION},
+     * carrying what is truncated to the next day
+     */
+    private static void roundValues(long[] allocatedHoursPerDay) {
+        long reminder = 0;
+        for (int i = 0; i < allocatedHoursPerDay.length; i++) {
+            long value = allocatedHoursPerDay[i] + reminder;
+            reminder = value % HOUR_FRAGMENTATION;
+            allocatedHoursPerDay[i] = value - reminder;
+        }
     }
 
-    private BigDecimal[] roundValues(BigDecimal[] allocatedHoursPerDay,
-            BigDecimal truncateValue) {
-
-        BigDecimal[] result = new BigDecimal[allocatedHoursPerDay.length];
-        BigDecimal reminder = BigDecimal.ZERO;
-
-        for (int i = 0; i < result.length; i++) {
-            BigDecimal value = allocatedHoursPerDay[i];
-            value = value.add(reminder);
-
-            BigDecimal intPart = intPart(value);
-            BigDecimal decimalPart = decimalPart(value);
-            reminder = calculateReminder(decimalPart, truncateValue);
-            decimalPart = decimalPart.subtract(reminder);
-            result[i] = intPart.add(decimalPart);
+    private static long sum(long[] hoursPerDay) {
+        long result = 0;
+        for (long each : hoursPerDay) {
+            result += each;
         }
         return result;
     }
 
-    private BigDecimal calculateReminder(BigDecimal decimalPart,
-            BigDecimal truncateValue) {
-        BigDecimal[] result = decimalPart.divideAndRemainder(truncateValue);
-        return result[1];
-    }
-
-    private BigDecimal intPart(BigDecimal bd) {
-        return BigDecimal.valueOf(bd.intValue());
-    }
-
-    private BigDecimal decimalPart(BigDecimal bd) {
-        return bd.subtract(intPart(bd));
-    }
-
-    private BigDecimal sumHoursPerDay(BigDecimal[] hoursPerDay) {
-        BigDecimal result = BigDecimal.ZERO;
+    private static int[] asSeconds(long[] hoursPerDay) {
+        int[] result = new int[hoursPerDay.length];
         for (int i = 0; i < hoursPerDay.length; i++) {
-            result = result.add(hoursPerDay[i]);
+            result[i] = (int) (hoursPerDay[i] * SECONDS_PER_HOUR / MICROHOURS_PER_HOUR);
         }
         return result;
     }
 
-    private BigDecimal[] generateHoursToAllocateFor(int days, int hours) {
-        BigDecimal[] valuesPerDay = generatePointValuesForDays(days);
-        BigDecimal[] acummulatedHoursPerDay = calculateNumberOfAccumulatedHoursForDays(valuesPerDay, hours);
-        BigDecimal[] allocatedHoursPerDay = calculateNumberOfAllocatedHoursForDays(acummulatedHoursPerDay);
-        return allocatedHoursPerDay;
-    }
-
-    private BigDecimal[] generatePointValuesForDays(int days) {
-        final BigDecimal dayIntervalConstant = getDayIntervalConstant(days);
+    private static long[] generateHoursToAllocateFor(int days, int hours) {
+        long dayIntervalConstant = getDayIntervalConstant(days);
 
-        BigDecimal[] result = new BigDecimal[days];
+        // the accumulated hours at each day minus the accumulated at the
+        // previous one
+        long[] result = new long[days];
+        long previous = 0;
         for (int i = 0; i < days; i++) {
-            result[i] = BigDecimal.valueOf(-6)
-                .add(dayIntervalConstant.multiply(BigDecimal.valueOf(i)));
+            long pointValue = -6 * MICROHOURS_PER_HOUR + dayIntervalConstant
+                    * i;
+            long accumulated = calculateNumberOfAccumulatedHoursAtDay(
+                    pointValue, hours);
+            result[i] = accumulated - previous;
+            previous = accumulated;
         }
         return result;
     }
 
-    private BigDecimal[] calculateNumberOfAllocatedHoursForDays(BigDecimal[] acummulatedHoursPerDay) {
-        BigDecimal[] result = new BigDecimal[acummulatedHoursPerDay.length];
-
-        result[0] = acummulatedHoursPerDay[0];
-        for (int i = 1; i < result.length; i++) {
-            result[i] = acummulatedHoursPerDay[i].subtract(acummulatedHoursPerDay[i - 1]);
-        }
-        return result;
+    private static long calculateNumberOfAccumulatedHoursAtDay(
+            long valueAtOneDay, int totalHours) {
+        double epow = Math.pow(Math.E,
+                -((double) valueAtOneDay / MICROHOURS_PER_HOUR));
+        return (long) Math.rint(totalHours / (1 + epow) * MICROHOURS_PER_HOUR);
     }
 
-    private BigDecimal[] calculateNumberOfAccumulatedHoursForDays(
-            BigDecimal[] dayValues, int totalHours) {
-        BigDecimal[] result = new BigDecimal[dayValues.length];
-        for (int i = 0; i < dayValues.length; i++) {
-            result[i] = calculateNumberOfAccumulatedHoursAtDay(dayValues[i], totalHours);
+    // 12 divide by days, rounding half even
+    private static long getDayIntervalConstant(int days) {
+        long dividend = 12 * MICROHOURS_PER_HOUR;
+        long result = dividend / days;
+        long twiceRemainder = 2 * (dividend % days);
+        if (twiceRemainder > days
+                || (twiceRemainder == days && result % 2 != 0)) {
+            result++;
         }
         return result;
     }
 
-    private BigDecimal calculateNumberOfAccumulatedHoursAtDay(
-            BigDecimal valueAtOneDay, int totalHours) {
-        BigDecimal epow = BigDecimal.valueOf(Math.pow(Math.E, valueAtOneDay
-                .negate().doubleValue()));
-        BigDecimal denominator = BigDecimal.valueOf(1).add(epow);
-        return BigDecimal.valueOf(totalHours).divide(denominator,
-                PRECISSION, ROUND_MODE);
-    }
-
-    // 12 divide by days
-    private BigDecimal getDayIntervalConstant(int days) {
-        return BigDecimal.valueOf(12).divide(BigDecimal.valueOf(days),
-                PRECISSION, ROUND_MODE);
-    }
-
     @Override
     public boolean isManual() {
         return false;
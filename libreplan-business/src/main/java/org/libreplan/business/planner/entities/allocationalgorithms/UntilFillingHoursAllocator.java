@@ -130,7 +130,11 @@ public abstract class UntilFillingHoursAllocator {
         IntraDayDate current = dateFromWhichToAllocate;
         IAssignmentsCreator assignmentsCreator = resourcesPerDayModification
                 .createAssignmentsCreator();
+        ICalendar calendar = resourcesPerDayModification.getBeingModified()
+                .getAllocationCalendar();
+        ResourcesPerDay goal = resourcesPerDayModification.getGoal();
         while (effortRemaining.compareTo(zero()) > 0) {
+            current = skipDaysWithoutCapacity(calendar, goal, current);
             PartialDay day = calculateDay(current);
             Pair<EffortDuration, EffortDuration> pair = assignForDay(
                     resourcesPerDayModification, assignmentsCreator, day,
@@ -152,6 +156,34 @@ public abstract class UntilFillingHoursAllocator {
         return finish;
     }
 
+    /**
+     * Jumps over the whole days in which nothing could be allocated, e.g.
+     * weekends or holidays. Otherwise empty assignments would be created for
+     * them, just to be discarded afterwards.
+     *
+     * @return the first date, following the scheduling direction, whose day
+     *         has some capacity. If <code>current</code> is in the middle of
+     *         a day, it's returned as is.
+     */
+    private IntraDayDate skipDaysWithoutCapacity(ICalendar calendar,
+            ResourcesPerDay goal, IntraDayDate current) {
+        if (!current.isStartOfDay()) {
+            return current;
+        }
+        IntraDayDate result = current;
+        while (calendar.asDurationOn(wholeDayToAllocate(result), goal)
+                .isZero()) {
+            result = nextDay(result);
+        }
+        return result;
+    }
+
+    private PartialDay wholeDayToAllocate(IntraDayDate startOfDay) {
+        LocalDate date = startOfDay.getDate();
+        return PartialDay.wholeDay(isForwardScheduling() ? date : date
+                .minusDays(1));
+    }
+
     private IntraDayDate adjustFinish(
             ResourcesPerDayModification resourcesPerDayModification,
             EffortDuration allocatedLastDay,
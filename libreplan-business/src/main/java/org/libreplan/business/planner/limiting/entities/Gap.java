@@ -180,13 +180,20 @@ public class Gap implements Comparable<Gap> {
 
     private DateAndHour endTime;
 
+    private final Resource resource;
+
+    /**
+     * Calculated when first needed, since it requires to go through the
+     * calendar of the resource for all the days of the gap and many gaps are
+     * discarded before their hours are checked
+     */
     private Integer hoursInGap;
 
     public Gap(Resource resource, DateAndHour startTime,
             DateAndHour endTime) {
+        this.resource = resource;
         this.startTime = startTime;
         this.endTime = endTime;
-        hoursInGap = calculateHoursInGap(resource, startTime, endTime);
     }
 
     public GapOnQueue onQueue(LimitingResourceQueue queue) {
@@ -205,6 +212,9 @@ public class Gap implements Comparable<Gap> {
     }
 
     public int getHoursInGap() {
+        if (hoursInGap == null) {
+            hoursInGap = calculateHoursInGap(resource, startTime, endTime);
+        }
         return hoursInGap;
     }
 
@@ -294,7 +304,7 @@ public class Gap implements Comparable<Gap> {
 
         return canSatisfyStartConstraint(startAfter)
                 && canSatisfyEndConstraint(endsAfter)
-                && hoursInGap >= candidate.getIntentedTotalHours();
+                && getHoursInGap() >= candidate.getIntentedTotalHours();
     }
 
     private boolean canSatisfyStartConstraint(final LocalDate startsAfter) {
@@ -342,6 +352,19 @@ public class Gap implements Comparable<Gap> {
                 getStartTime(), getEndTime());
     }
 
+    /**
+     * Like {@link #splitIntoGapsSatisfyingCriteria(Resource, Set)} but using
+     * an already calculated availability of the criteria for the resource, so
+     * it can be reused when splitting several gaps. The provided
+     * <code>criterionsAvailability</code> is not modified.
+     */
+    public List<Gap> splitIntoGapsSatisfyingCriteria(Resource resource,
+            AvailabilityTimeLine criterionsAvailability) {
+        return splitIntoGapsSatisfyingCriteria(resource,
+                criterionsAvailability.and(AvailabilityTimeLine.allValid()),
+                getStartTime(), getEndTime());
+    }
+
     /**
      * Returns a set of {@link Gap} composed by those gaps which satisfy
      * <em>criteria</em> within the period: <em>gapStartTime</em> till
@@ -358,8 +381,14 @@ public class Gap implements Comparable<Gap> {
     private static List<Gap> splitIntoGapsSatisfyingCriteria(Resource resource,
             Set<Criterion> criteria, DateAndHour gapStartTime,
             DateAndHour gapEndTime) {
-        AvailabilityTimeLine criterionsAvailability = AvailabilityCalculator
-                .getCriterionsAvailabilityFor(criteria, resource);
+        return splitIntoGapsSatisfyingCriteria(resource,
+                AvailabilityCalculator.getCriterionsAvailabilityFor(criteria,
+                        resource), gapStartTime, gapEndTime);
+    }
+
+    private static List<Gap> splitIntoGapsSatisfyingCriteria(Resource resource,
+            AvailabilityTimeLine criterionsAvailability,
+            DateAndHour gapStartTime, DateAndHour gapEndTime) {
         if (gapStartTime != null) {
             criterionsAvailability.invalidUntil(gapStartTime.getDate());
         }
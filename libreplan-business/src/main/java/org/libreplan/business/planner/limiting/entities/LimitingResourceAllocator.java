@@ -32,7 +32,9 @@ import java.util.List;
 import java.util.ListIterator;
 
 import org.joda.time.LocalDate;
+import org.libreplan.business.calendars.entities.AvailabilityTimeLine;
 import org.libreplan.business.calendars.entities.ResourceCalendar;
+import org.libreplan.business.planner.entities.AvailabilityCalculator;
 import org.libreplan.business.planner.entities.DayAssignment;
 import org.libreplan.business.planner.entities.GenericDayAssignment;
 import org.libreplan.business.planner.entities.GenericResourceAllocation;
@@ -107,12 +109,16 @@ public class LimitingResourceAllocator {
             LimitingResourceQueue queue, LimitingResourceQueueElement element) {
 
         final Resource resource = queue.getResource();
-        final List<LimitingResourceQueueElement> elements = new LinkedList<LimitingResourceQueueElement>(
+        final List<LimitingResourceQueueElement> elements = new ArrayList<LimitingResourceQueueElement>(
                 queue.getLimitingResourceQueueElements());
         final int size = elements.size();
         final DateAndHour startTime = getStartTimeBecauseOfGantt(element);
+        final AvailabilityTimeLine criterionsAvailability = getCriterionsAvailability(
+                element, resource);
 
-        int pos = 0;
+        // The gaps before the element that starts after startTime finish
+        // before startTime, so they can't hold the element
+        int pos = moveUntil(elements, startTime);
 
         // Iterate through queue elements
         while (pos <= size) {
@@ -120,8 +126,8 @@ public class LimitingResourceAllocator {
                     resource, elements, startTime, pos++);
 
             if (gap != null) {
-                List<Gap> subgaps = getFittingSubgaps(
-                        element, gap, resource);
+                List<Gap> subgaps = getFittingSubgaps(element, gap,
+                        resource, criterionsAvailability);
                 if (!subgaps.isEmpty()) {
                     return subgaps.get(0);
                 }
@@ -133,9 +139,23 @@ public class LimitingResourceAllocator {
         return null;
     }
 
+    /**
+     * The availability of the criteria of a generic element is the same for
+     * all the gaps of the queue, so it's calculated only once
+     */
+    private static AvailabilityTimeLine getCriterionsAvailability(
+            LimitingResourceQueueElement element, Resource resource) {
+        if (!isGeneric(element)) {
+            return null;
+        }
+        return AvailabilityCalculator.getCriterionsAvailabilityFor(
+                element.getCriteria(), resource);
+    }
+
     private static List<Gap> getFittingSubgaps(
             LimitingResourceQueueElement element,
-            final Gap gap, final Resource resource) {
+            final Gap gap, final Resource resource,
+            AvailabilityTimeLine criterionsAvailability) {
 
         List<Gap> result = new ArrayList<Gap>();
 
@@ -143,7 +163,7 @@ public class LimitingResourceAllocator {
             result.add(gap);
         } else if (isGeneric(element)) {
             final List<Gap> gaps = gap.splitIntoGapsSatisfyingCriteria(
-                    resource, element.getCriteria());
+                    resource, criterionsAvailability);
             for (Gap subgap : gaps) {
                 if (subgap.canFit(element)) {
                     result.add(subgap);
@@ -167,9 +187,11 @@ public class LimitingResourceAllocator {
         List<Gap> result = new ArrayList<Gap>();
 
         final Resource resource = queue.getResource();
-        final List<LimitingResourceQueueElement> elements = new LinkedList<LimitingResourceQueueElement>(
+        final List<LimitingResourceQueueElement> elements = new ArrayList<LimitingResourceQueueElement>(
                 queue.getLimitingResourceQueueElements());
         final int size = elements.size();
+        final AvailabilityTimeLine criterionsAvailability = getCriterionsAvailability(
+                element, resource);
 
         int pos = moveUntil(elements, since);
 
@@ -181,8 +203,8 @@ public class LimitingResourceAllocator {
             // The queue cannot hold this element (queue.resource
             // doesn't meet element.criteria)
             if (gap != null) {
-                List<Gap> subgaps = getFittingSubgaps(
-                        element, gap, resource);
+                List<Gap> subgaps = getFittingSubgaps(element, gap,
+                        resource, criterionsAvailability);
                 result.addAll(subgaps);
             }
         }
@@ -190,25 +212,33 @@ public class LimitingResourceAllocator {
         return result;
     }
 
-    private static int moveUntil(List<LimitingResourceQueueElement> elements, DateAndHour until) {
-        int pos = 0;
-
-        if (elements.size() > 0) {
-            // Space between until and first element start time
-            LimitingResourceQueueElement first = elements.get(0);
-            if (until.isBefore(first.getStartTime())) {
-                return 0;
-            }
-
-            for (pos = 1; pos < elements.size(); pos++) {
-                final LimitingResourceQueueElement each = elements.get(pos);
-                final DateAndHour startTime = each.getStartTime();
-                if (until.isBefore(startTime) || until.isEquals(startTime)) {
-                    return pos;
-                }
+    /**
+     * Returns the position of the first element, apart from the first one,
+     * starting at <code>until</code> or after it. If <code>until</code> is
+     * before the start of the first element zero is returned. As the elements
+     * are sorted by start time a binary search is done.
+     */
+    static int moveUntil(List<LimitingResourceQueueElement> elements,
+            DateAndHour until) {
+        if (elements.isEmpty()) {
+            return 0;
+        }
+        // Space between until and first element start time
+        if (until.isBefore(elements.get(0).getStartTime())) {
+            return 0;
+        }
+        int low = 1;
+        int high = elements.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            DateAndHour startTime = elements.get(middle).getStartTime();
+            if (until.isBefore(startTime) || until.isEquals(startTime)) {
+                high = middle;
+            } else {
+                low = middle + 1;
             }
         }
-        return pos;
+        return low;
     }
 
     private static boolean isGeneric(LimitingResourceQueueElement element) {
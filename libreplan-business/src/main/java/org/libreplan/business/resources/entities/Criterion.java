@@ -290,14 +290,14 @@ public class Criterion extends IntegrationEntity implements ICriterion,
 
     @Override
     public boolean isSatisfiedBy(Resource resource, LocalDate start, LocalDate end) {
-        return !resource.query().from(this).enforcedInAll(
-                Interval.range(start, end)).result().isEmpty();
+        return resource.query().from(this)
+                .enforcedInAll(Interval.range(start, end)).exists();
     }
 
     @Override
     public boolean isSatisfiedBy(Resource resource, LocalDate atThisDate) {
-        return !resource.query().from(this).enforcedInAll(
-                Interval.point(atThisDate)).result().isEmpty();
+        return resource.query().from(this)
+                .enforcedInAll(Interval.point(atThisDate)).exists();
     }
 
     @NotEmpty(message="criterion name not specified")
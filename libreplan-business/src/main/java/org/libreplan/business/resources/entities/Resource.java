@@ -338,8 +338,9 @@ public abstract class Resource extends IntegrationEntity implements
          */
         public List<CriterionSatisfaction> result() {
             ArrayList<CriterionSatisfaction> result = new ArrayList<CriterionSatisfaction>();
-            for (CriterionSatisfaction criterionSatisfaction : getCriterionSatisfactions()) {
-                if (isAcceptedByAllPredicates(criterionSatisfaction)) {
+            for (CriterionSatisfaction criterionSatisfaction : criterionSatisfactions) {
+                if (!criterionSatisfaction.isIsDeleted()
+                        && isAcceptedByAllPredicates(criterionSatisfaction)) {
                     result.add(criterionSatisfaction);
                 }
             }
@@ -347,6 +348,21 @@ public abstract class Resource extends IntegrationEntity implements
             return result;
         }
 
+        /**
+         * Checks if some satisfaction is matched by all predicates specified.
+         * It's cheaper than checking if {@link #result()} is empty, since it
+         * stops at the first satisfaction matched and nothing is sorted.
+         */
+        public boolean exists() {
+            for (CriterionSatisfaction criterionSatisfaction : criterionSatisfactions) {
+                if (!criterionSatisfaction.isIsDeleted()
+                        && isAcceptedByAllPredicates(criterionSatisfaction)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
         public List<CriterionSatisfaction> result(Set<CriterionSatisfaction> list) {
             ArrayList<CriterionSatisfaction> result = new ArrayList<CriterionSatisfaction>();
             for (CriterionSatisfaction criterionSatisfaction : list) {
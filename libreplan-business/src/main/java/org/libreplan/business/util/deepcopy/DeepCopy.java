@@ -37,6 +37,8 @@ import java.util.Map.Entry;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.commons.lang.Validate;
 import org.hibernate.proxy.HibernateProxy;
@@ -290,7 +292,7 @@ public class DeepCopy {
 
         @Override
         public int hashCode() {
-            return wrapped.hashCode();
+            return System.identityHashCode(wrapped);
         }
 
         @Override
@@ -348,8 +350,16 @@ public class DeepCopy {
         return value;
     }
 
+    private static final ConcurrentMap<Class<?>, Boolean> immutabilityByClass = new ConcurrentHashMap<Class<?>, Boolean>();
+
     private boolean isImmutable(Object value) {
-        return isImmutableType(value.getClass());
+        Class<?> klass = value.getClass();
+        Boolean result = immutabilityByClass.get(klass);
+        if (result == null) {
+            result = isImmutableType(klass);
+            immutabilityByClass.putIfAbsent(klass, result);
+        }
+        return result;
     }
 
     @SuppressWarnings("unchecked")
@@ -358,66 +368,157 @@ public class DeepCopy {
     }
 
     private <T> T instantiateUsingDefaultConstructor(Class<T> klass) {
-        Constructor<T> constructor;
-        try {
-            constructor = klass.getConstructor();
-        } catch (SecurityException e) {
-            throw new RuntimeException(e);
-        } catch (NoSuchMethodException e) {
-            throw new IllegalArgumentException(
-                    "could not invoke default no-args constructor for "
-                            + klass, e);
-        }
-        try {
-            return constructor.newInstance();
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
+        return getPlanFor(klass).instantiate();
     }
 
     private void copyProperties(Object source, Object target) {
-        List<Field> fields = getAllFieldsFor(source);
-        for (Field each : fields) {
-            each.setAccessible(true);
-            if (!isIgnored(each)) {
-                Object sourceValue = readFieldValue(source, each);
-                if (sourceValue != null) {
-                    Strategy strategy = getStrategy(each, sourceValue);
-                    try {
-                        writeFieldValue(target, each, copy(sourceValue, strategy));
-                    } catch (Exception e) {
-                        e.printStackTrace();
-                        throw new RuntimeException(e);
-                    }
-                }
+        for (FieldCopy each : getPlanFor(source.getClass()).fields) {
+            Object sourceValue = readFieldValue(source, each.field);
+            if (sourceValue == null) {
+                continue;
+            }
+            if (each.primitive) {
+                writeFieldValue(target, each.field, sourceValue);
+                continue;
+            }
+            try {
+                writeFieldValue(target, each.field,
+                        copy(sourceValue, each.strategy));
+            } catch (Exception e) {
+                e.printStackTrace();
+                throw new RuntimeException(e);
             }
         }
     }
 
-    private List<Field> getAllFieldsFor(Object source) {
-        List<Field> result = new ArrayList<Field>();
-        Class<? extends Object> currentClass = source.getClass();
-        while (currentClass != null) {
-            result.addAll(Arrays.asList(currentClass.getDeclaredFields()));
-            currentClass = currentClass.getSuperclass();
+    /**
+     * Copy plans are computed once per class and shared among all
+     * {@link DeepCopy} instances, so the reflective inspection of fields,
+     * annotations and hooks is not repeated for every copied object.
+     */
+    private static final ConcurrentMap<Class<?>, CopyPlan<?>> plans = new ConcurrentHashMap<Class<?>, CopyPlan<?>>();
+
+    @SuppressWarnings("unchecked")
+    private static <T> CopyPlan<T> getPlanFor(Class<T> klass) {
+        CopyPlan<T> result = (CopyPlan<T>) plans.get(klass);
+        if (result == null) {
+            result = new CopyPlan<T>(klass);
+            CopyPlan<T> previous = (CopyPlan<T>) plans.putIfAbsent(klass,
+                    result);
+            if (previous != null) {
+                result = previous;
+            }
         }
         return result;
     }
 
-    private boolean isIgnored(Field field) {
-        return isStatic(field) || isMarkedWithIgnore(field);
-    }
+    private static class FieldCopy {
+
+        private final Field field;
+
+        private final Strategy strategy;
 
-    private boolean isStatic(Field field) {
-        return Modifier.isStatic(field.getModifiers());
+        private final boolean primitive;
+
+        FieldCopy(Field field) {
+            this.field = field;
+            this.field.setAccessible(true);
+            this.strategy = getStrategy(field);
+            this.primitive = field.getType().isPrimitive();
+        }
+
+        private static Strategy getStrategy(Field field) {
+            OnCopy onCopy = field.getAnnotation(OnCopy.class);
+            return onCopy != null ? onCopy.value() : null;
+        }
     }
 
-    private boolean isMarkedWithIgnore(Field each) {
-        OnCopy onCopy = each.getAnnotation(OnCopy.class);
-        return onCopy != null && onCopy.value() == Strategy.IGNORE;
+    private static class CopyPlan<T> {
+
+        private final Class<T> klass;
+
+        private final Constructor<T> constructor;
+
+        private final FieldCopy[] fields;
+
+        private final Method[] afterCopyHooks;
+
+        CopyPlan(Class<T> klass) {
+            this.klass = klass;
+            this.constructor = findDefaultConstructor(klass);
+            this.fields = buildFieldCopies(klass);
+            this.afterCopyHooks = findAfterCopyHooks(klass);
+        }
+
+        private static <T> Constructor<T> findDefaultConstructor(
+                Class<T> klass) {
+            try {
+                return klass.getConstructor();
+            } catch (SecurityException e) {
+                throw new RuntimeException(e);
+            } catch (NoSuchMethodException e) {
+                return null;
+            }
+        }
+
+        private static FieldCopy[] buildFieldCopies(Class<?> klass) {
+            List<FieldCopy> result = new ArrayList<FieldCopy>();
+            Class<?> currentClass = klass;
+            while (currentClass != null) {
+                for (Field each : currentClass.getDeclaredFields()) {
+                    if (!isIgnored(each)) {
+                        result.add(new FieldCopy(each));
+                    }
+                }
+                currentClass = currentClass.getSuperclass();
+            }
+            return result.toArray(new FieldCopy[0]);
+        }
+
+        private static boolean isIgnored(Field field) {
+            return isStatic(field) || isMarkedWithIgnore(field);
+        }
+
+        private static boolean isStatic(Field field) {
+            return Modifier.isStatic(field.getModifiers());
+        }
+
+        private static boolean isMarkedWithIgnore(Field each) {
+            OnCopy onCopy = each.getAnnotation(OnCopy.class);
+            return onCopy != null && onCopy.value() == Strategy.IGNORE;
+        }
+
+        private static Method[] findAfterCopyHooks(Class<?> klass) {
+            Class<?> current = klass;
+            List<Method> result = new ArrayList<Method>();
+            while (current != null) {
+                for (Method each : current.getDeclaredMethods()) {
+                    if (each.getAnnotation(AfterCopy.class) != null) {
+                        each.setAccessible(true);
+                        result.add(each);
+                    }
+                }
+                current = current.getSuperclass();
+            }
+            return result.toArray(new Method[0]);
+        }
+
+        T instantiate() {
+            if (constructor == null) {
+                throw new IllegalArgumentException(
+                        "could not invoke default no-args constructor for "
+                                + klass);
+            }
+            try {
+                return constructor.newInstance();
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        }
     }
 
-    private void writeFieldValue(Object target, Field field, Object value) {
+    private static void writeFieldValue(Object target, Field field,
+            Object value) {
         try {
             field.set(target, value);
         } catch (Exception e) {
@@ -425,7 +526,7 @@ public class DeepCopy {
         }
     }
 
-    private Object readFieldValue(Object source, Field field) {
+    private static Object readFieldValue(Object source, Field field) {
         try {
             return field.get(source);
         } catch (Exception e) {
@@ -433,11 +534,6 @@ public class DeepCopy {
         }
     }
 
-    private Strategy getStrategy(Field field, Object sourceValue) {
-        OnCopy onCopy = field.getAnnotation(OnCopy.class);
-        return onCopy != null ? onCopy.value() : null;
-    }
-
     private ICustomCopy findCopier(Object sourceValue) {
         for (ICustomCopy each : DEFAULT_CUSTOM_COPIERS) {
             if (each.canHandle(sourceValue)) {
@@ -449,8 +545,7 @@ public class DeepCopy {
 
     private void callAferCopyHooks(Object value) {
         assert value != null;
-        for (Method each : getAfterCopyHooks(value.getClass())) {
-            each.setAccessible(true);
+        for (Method each : getPlanFor(value.getClass()).afterCopyHooks) {
             try {
                 each.invoke(value);
             } catch (Exception e) {
@@ -459,31 +554,6 @@ public class DeepCopy {
         }
     }
 
-    private List<Method> getAfterCopyHooks(Class<?> klass) {
-        Class<?> current = klass;
-        List<Method> result = new ArrayList<Method>();
-        while (current != null) {
-            result.addAll(getAfterCopyDeclaredAt(current));
-            current = current.getSuperclass();
-        }
-        return result;
-    }
-
-    private List<Method> getAfterCopyDeclaredAt(Class<?> klass) {
-        List<Method> result = new ArrayList<Method>();
-        for (Method each : klass.getDeclaredMethods()) {
-            if (isAfterCopyHook(each)) {
-                result.add(each);
-            }
-        }
-        return result;
-    }
-
-    private boolean isAfterCopyHook(Method each) {
-        AfterCopy annotation = each.getAnnotation(AfterCopy.class);
-        return annotation != null;
-    }
-
     public <T> DeepCopy replace(T toBeReplaced, T substitution) {
         alreadyCopiedObjects.put(byIdentity(toBeReplaced), substitution);
         return this;
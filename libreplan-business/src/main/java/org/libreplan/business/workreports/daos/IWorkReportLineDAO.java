@@ -21,14 +21,20 @@
 
 package org.libreplan.business.workreports.daos;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.SortedMap;
+
+import org.joda.time.LocalDate;
 
 import org.libreplan.business.common.daos.IIntegrationEntityDAO;
 import org.libreplan.business.orders.entities.OrderElement;
 import org.libreplan.business.reports.dtos.WorkReportLineDTO;
 import org.libreplan.business.resources.entities.Resource;
 import org.libreplan.business.util.Pair;
+import org.libreplan.business.workingday.EffortDuration;
 import org.libreplan.business.workreports.entities.WorkReport;
 import org.libreplan.business.workreports.entities.WorkReportLine;
 
@@ -45,6 +51,14 @@ public interface IWorkReportLineDAO extends
 
     List<WorkReportLine> findByOrderElementAndChildren(OrderElement orderElement);
 
+    /**
+     * Returns the {@link WorkReportLine WorkReportLines} of the order elements
+     * with the given ids, so the lines of a whole tree can be retrieved with a
+     * single query even if some of its elements are not saved yet. The
+     * <code>null</code> ids of the elements not saved are skipped.
+     */
+    List<WorkReportLine> findByOrderElementIds(Collection<Long> orderElementIds);
+
     List<WorkReportLine> findByOrderElementAndChildren(OrderElement orderElement, boolean sortByDate);
 
     List<WorkReportLine> findFilteredByDate(Date start, Date end);
@@ -66,6 +80,14 @@ public interface IWorkReportLineDAO extends
     List<WorkReportLine> findByResourceFilteredByDateNotInWorkReport(
             Resource resource, Date start, Date end, WorkReport workReport);
 
+    /**
+     * Returns the hours of all the {@link WorkReportLine WorkReportLines}
+     * added by day. The hours of each line are rounded to two decimals before
+     * being added, as done by {@link EffortDuration#toHoursAsDecimalWithScale}.
+     * The lines are aggregated by the database, so they are not loaded.
+     */
+    SortedMap<LocalDate, BigDecimal> getHoursPerDay();
+
     Pair<Date, Date> findMinAndMaxDatesByOrderElement(
             OrderElement orderElement);
 
@@ -21,20 +21,25 @@
 
 package org.libreplan.business.workreports.daos;
 
+import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
 
 import org.hibernate.Criteria;
 import org.hibernate.Query;
 import org.hibernate.criterion.Restrictions;
+import org.joda.time.LocalDate;
 import org.libreplan.business.common.daos.IntegrationEntityDAO;
 import org.libreplan.business.orders.entities.OrderElement;
 import org.libreplan.business.reports.dtos.WorkReportLineDTO;
 import org.libreplan.business.resources.entities.Resource;
 import org.libreplan.business.util.Pair;
+import org.libreplan.business.workingday.EffortDuration;
 import org.libreplan.business.workreports.entities.WorkReport;
 import org.libreplan.business.workreports.entities.WorkReportLine;
 import org.springframework.beans.factory.config.BeanDefinition;
@@ -91,6 +96,24 @@ public class WorkReportLineDAO extends IntegrationEntityDAO<WorkReportLine>
         return findByOrderElementAndChildren(orderElement, false);
     }
 
+    @SuppressWarnings("unchecked")
+    @Override
+    public List<WorkReportLine> findByOrderElementIds(
+            Collection<Long> orderElementIds) {
+        List<Long> savedIds = new ArrayList<Long>();
+        for (Long each : orderElementIds) {
+            if (each != null) {
+                savedIds.add(each);
+            }
+        }
+        if (savedIds.isEmpty()) {
+            return new ArrayList<WorkReportLine>();
+        }
+        Criteria criteria = getSession().createCriteria(WorkReportLine.class);
+        criteria.add(Restrictions.in("orderElement.id", savedIds));
+        return criteria.list();
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     @Transactional(readOnly=true)
@@ -148,6 +171,29 @@ public class WorkReportLineDAO extends IntegrationEntityDAO<WorkReportLine>
         return criteria.list();
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public SortedMap<LocalDate, BigDecimal> getHoursPerDay() {
+        // Lines are grouped by effort too, so the hours of each line can be
+        // rounded like when they are added one by one
+        String strQuery = "SELECT date, effort, COUNT(*) "
+                + "FROM WorkReportLine "
+                + "WHERE date IS NOT NULL AND effort IS NOT NULL "
+                + "GROUP BY date, effort";
+        Query query = getSession().createQuery(strQuery);
+
+        SortedMap<LocalDate, BigDecimal> result = new TreeMap<LocalDate, BigDecimal>();
+        for (Object[] each : (List<Object[]>) query.list()) {
+            LocalDate day = LocalDate.fromDateFields((Date) each[0]);
+            BigDecimal hours = ((EffortDuration) each[1])
+                    .toHoursAsDecimalWithScale(2).multiply(
+                            BigDecimal.valueOf((Long) each[2]));
+            BigDecimal previous = result.get(day);
+            result.put(day, previous == null ? hours : previous.add(hours));
+        }
+        return result;
+    }
+
     @Override
     public Pair<Date, Date> findMinAndMaxDatesByOrderElement(
             OrderElement orderElement) {
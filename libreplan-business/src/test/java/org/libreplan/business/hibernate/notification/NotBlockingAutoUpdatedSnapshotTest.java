@@ -0,0 +1,204 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2012 Igalia, S.L.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.libreplan.business.hibernate.notification;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.lang.ref.SoftReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link NotBlockingAutoUpdatedSnapshot}. Each calculation waits
+ * for the test to provide its result, and the previous values can be cleared
+ * as the garbage collector would do.
+ */
+public class NotBlockingAutoUpdatedSnapshotTest {
+
+    private ExecutorService executorService;
+
+    private BlockingDeque<Callable<String>> results;
+
+    private List<SoftReference<?>> previousValues;
+
+    private NotBlockingAutoUpdatedSnapshot<String> snapshot;
+
+    @Before
+    public void setUp() {
+        executorService = Executors.newCachedThreadPool();
+        results = new LinkedBlockingDeque<Callable<String>>();
+        previousValues = new ArrayList<SoftReference<?>>();
+        snapshot = new NotBlockingAutoUpdatedSnapshot<String>("test",
+                new Callable<String>() {
+
+                    @Override
+                    public String call() throws Exception {
+                        Callable<String> result = results.takeFirst();
+                        if (Thread.currentThread().isInterrupted()) {
+                            // cancelled while taking it, it is for the next
+                            // calculation
+                            results.addFirst(result);
+                            throw new InterruptedException();
+                        }
+                        return result.call();
+                    }
+                }, executorService) {
+
+            @Override
+            <S> SoftReference<S> softReferenceTo(S value) {
+                SoftReference<S> result = super.softReferenceTo(value);
+                previousValues.add(result);
+                return result;
+            }
+        };
+    }
+
+    @After
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    private static Callable<String> returning(final String value) {
+        return new Callable<String>() {
+
+            @Override
+            public String call() {
+                return value;
+            }
+        };
+    }
+
+    private static Callable<String> failing() {
+        return new Callable<String>() {
+
+            @Override
+            public String call() {
+                throw new RuntimeException("calculation failed");
+            }
+        };
+    }
+
+    private void givenFirstValue(String value) {
+        results.add(returning(value));
+        assertThat(snapshot.getValue(), equalTo(value));
+    }
+
+    private void givenReloadWithPreviousValueReclaimed() {
+        snapshot.reloadNeeded();
+        for (SoftReference<?> each : previousValues) {
+            each.clear();
+        }
+    }
+
+    private FutureTask<String> readInBackground() throws InterruptedException {
+        FutureTask<String> result = new FutureTask<String>(
+                new Callable<String>() {
+
+                    @Override
+                    public String call() {
+                        return snapshot.getValue();
+                    }
+                });
+        Thread reader = new Thread(result);
+        reader.start();
+        while (reader.getState() != Thread.State.WAITING) {
+            Thread.sleep(10);
+        }
+        return result;
+    }
+
+    @Test
+    public void thePreviousValueIsReturnedWhileTheNewOneIsCalculated() {
+        givenFirstValue("first");
+        snapshot.reloadNeeded();
+
+        assertThat(snapshot.getValue(), equalTo("first"));
+
+        results.add(returning("second"));
+    }
+
+    @Test
+    public void thePreviousValueIsKeptIfTheCalculationFails() {
+        givenFirstValue("first");
+        snapshot.reloadNeeded();
+        results.add(failing());
+
+        assertThat(snapshot.getValue(), equalTo("first"));
+    }
+
+    @Test
+    public void ifThePreviousValueIsReclaimedTheOngoingCalculationIsWaitedFor() {
+        givenFirstValue("first");
+        givenReloadWithPreviousValueReclaimed();
+        results.add(returning("second"));
+
+        assertThat(snapshot.getValue(), equalTo("second"));
+    }
+
+    @Test
+    public void ifThePreviousValueIsReclaimedAndTheCalculationIsCancelledTheNewOneIsWaitedFor()
+            throws Exception {
+        givenFirstValue("first");
+        givenReloadWithPreviousValueReclaimed();
+        FutureTask<String> reader = readInBackground();
+
+        snapshot.reloadNeeded();
+        results.add(returning("third"));
+
+        assertThat(reader.get(5, TimeUnit.SECONDS), equalTo("third"));
+    }
+
+    @Test
+    public void ifThePreviousValueIsReclaimedAndTheCalculationFailsItIsCalculatedAgain() {
+        givenFirstValue("first");
+        givenReloadWithPreviousValueReclaimed();
+        results.add(failing());
+        results.add(returning("second"));
+
+        assertThat(snapshot.getValue(), equalTo("second"));
+    }
+
+    @Test
+    public void ifTheFirstCalculationFailsItIsCalculatedAgainOnNextAccess() {
+        results.add(failing());
+        try {
+            snapshot.getValue();
+            fail("the first calculation has failed");
+        } catch (RuntimeException e) {
+            // expected
+        }
+        results.add(returning("first"));
+
+        assertThat(snapshot.getValue(), equalTo("first"));
+    }
+
+}
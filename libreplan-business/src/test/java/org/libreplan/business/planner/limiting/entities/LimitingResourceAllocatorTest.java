@@ -0,0 +1,227 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2014 Igalia, S.L.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.planner.limiting.entities;
+
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.isA;
+import static org.easymock.classextension.EasyMock.createNiceMock;
+import static org.easymock.classextension.EasyMock.replay;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import org.joda.time.LocalDate;
+import org.junit.Before;
+import org.junit.Test;
+import org.libreplan.business.calendars.entities.ResourceCalendar;
+import org.libreplan.business.planner.entities.SpecificResourceAllocation;
+import org.libreplan.business.resources.entities.LimitingResourceQueue;
+import org.libreplan.business.resources.entities.Resource;
+import org.libreplan.business.workingday.EffortDuration;
+import org.libreplan.business.workingday.IntraDayDate.PartialDay;
+
+/**
+ * Tests for the search of gaps done by {@link LimitingResourceAllocator}. The
+ * resource works 8 hours every day.
+ */
+public class LimitingResourceAllocatorTest {
+
+    private static final LocalDate START = new LocalDate(2014, 1, 6);
+
+    private Resource resource;
+
+    @Before
+    public void setUp() {
+        ResourceCalendar calendar = createNiceMock(ResourceCalendar.class);
+        expect(calendar.getCapacityOn(isA(PartialDay.class))).andReturn(
+                EffortDuration.hours(8)).anyTimes();
+        resource = createNiceMock(Resource.class);
+        expect(resource.getCalendar()).andReturn(calendar).anyTimes();
+        replay(calendar, resource);
+    }
+
+    private static DateAndHour day(int days) {
+        return new DateAndHour(START.plusDays(days), 0);
+    }
+
+    private static LimitingResourceQueueElement element(int startDay,
+            int endDay) {
+        LimitingResourceQueueElement result = createNiceMock(LimitingResourceQueueElement.class);
+        expect(result.getStartTime()).andReturn(day(startDay)).anyTimes();
+        expect(result.getStartDate()).andReturn(day(startDay).getDate())
+                .anyTimes();
+        expect(result.getEndTime()).andReturn(day(endDay)).anyTimes();
+        replay(result);
+        return result;
+    }
+
+    /**
+     * An element that isn't in the queue yet, allocated to the resource of
+     * the queue
+     */
+    private static LimitingResourceQueueElement candidate(int earliestDay,
+            int hours) {
+        SpecificResourceAllocation allocation = createNiceMock(SpecificResourceAllocation.class);
+        replay(allocation);
+        LimitingResourceQueueElement result = createNiceMock(LimitingResourceQueueElement.class);
+        expect(result.getResourceAllocation()).andReturn(allocation)
+                .anyTimes();
+        expect(result.getEarliestStartDateBecauseOfGantt()).andReturn(
+                day(earliestDay).getDate().toDateTimeAtStartOfDay().toDate())
+                .anyTimes();
+        expect(result.getEarliestEndDateBecauseOfGantt()).andReturn(
+                day(earliestDay).getDate().toDateTimeAtStartOfDay().toDate())
+                .anyTimes();
+        expect(result.getIntentedTotalHours()).andReturn(hours).anyTimes();
+        replay(result);
+        return result;
+    }
+
+    private LimitingResourceQueue queueWith(
+            LimitingResourceQueueElement... elements) {
+        SortedSet<LimitingResourceQueueElement> sorted = new TreeSet<LimitingResourceQueueElement>(
+                new Comparator<LimitingResourceQueueElement>() {
+
+                    @Override
+                    public int compare(LimitingResourceQueueElement o1,
+                            LimitingResourceQueueElement o2) {
+                        return o1.getStartTime().compareTo(o2.getStartTime());
+                    }
+                });
+        sorted.addAll(Arrays.asList(elements));
+        LimitingResourceQueue result = createNiceMock(LimitingResourceQueue.class);
+        expect(result.getResource()).andReturn(resource).anyTimes();
+        expect(result.getLimitingResourceQueueElements()).andReturn(
+                Collections.unmodifiableSortedSet(sorted)).anyTimes();
+        replay(result);
+        return result;
+    }
+
+    /**
+     * Elements lasting two days, separated by a day
+     */
+    private static List<LimitingResourceQueueElement> elementsEveryThreeDays(
+            int size) {
+        List<LimitingResourceQueueElement> result = new ArrayList<LimitingResourceQueueElement>();
+        for (int i = 0; i < size; i++) {
+            result.add(element(3 * i, 3 * i + 2));
+        }
+        return result;
+    }
+
+    @Test
+    public void inAnEmptyQueueTheFirstPositionIsReturned() {
+        List<LimitingResourceQueueElement> elements = Collections.emptyList();
+        assertThat(LimitingResourceAllocator.moveUntil(elements, day(0)),
+                equalTo(0));
+    }
+
+    @Test
+    public void beforeTheFirstElementTheFirstPositionIsReturned() {
+        List<LimitingResourceQueueElement> elements = elementsEveryThreeDays(5);
+        assertThat(LimitingResourceAllocator.moveUntil(elements, day(-1)),
+                equalTo(0));
+    }
+
+    @Test
+    public void afterTheStartOfTheLastElementTheSizeIsReturned() {
+        List<LimitingResourceQueueElement> elements = elementsEveryThreeDays(5);
+        assertThat(LimitingResourceAllocator.moveUntil(elements, day(13)),
+                equalTo(5));
+        assertThat(LimitingResourceAllocator.moveUntil(elements, day(20)),
+                equalTo(5));
+    }
+
+    @Test
+    public void theFirstElementStartingAtTheTimeOrAfterItIsFound() {
+        List<LimitingResourceQueueElement> elements = elementsEveryThreeDays(9);
+        for (int i = 1; i < elements.size(); i++) {
+            assertThat(LimitingResourceAllocator.moveUntil(elements,
+                    day(3 * i)), equalTo(i));
+            assertThat(LimitingResourceAllocator.moveUntil(elements,
+                    day(3 * i - 1)), equalTo(i));
+            assertThat(LimitingResourceAllocator.moveUntil(elements,
+                    day(3 * i + 1)), equalTo(i + 1));
+        }
+    }
+
+    @Test
+    public void afterAnElementEndingAtTheTimeTheNextPositionIsReturned() {
+        List<LimitingResourceQueueElement> elements = Arrays.asList(
+                element(0, 4), element(10, 12));
+        assertThat(LimitingResourceAllocator.moveUntil(elements, day(4)),
+                equalTo(1));
+    }
+
+    @Test
+    public void inAnEmptyQueueTheGapStartsAtTheEarliestStart() {
+        Gap gap = LimitingResourceAllocator.getFirstValidGap(queueWith(),
+                candidate(2, 16));
+
+        assertThat(gap.getStartTime(), equalTo(day(2)));
+        assertThat(gap.getEndTime(), nullValue());
+    }
+
+    @Test
+    public void theGapBeforeTheFirstElementIsUsedIfItFits() {
+        Gap gap = LimitingResourceAllocator.getFirstValidGap(
+                queueWith(element(5, 7)), candidate(0, 16));
+
+        assertThat(gap.getStartTime(), equalTo(day(0)));
+        assertThat(gap.getEndTime(), equalTo(day(5)));
+    }
+
+    @Test
+    public void theGapAfterAnElementEndingAtTheEarliestStartIsUsed() {
+        Gap gap = LimitingResourceAllocator.getFirstValidGap(
+                queueWith(element(0, 4), element(10, 12)), candidate(4, 16));
+
+        assertThat(gap.getStartTime(), equalTo(day(4)));
+        assertThat(gap.getEndTime(), equalTo(day(10)));
+    }
+
+    @Test
+    public void theGapsTooSmallAreSkipped() {
+        Gap gap = LimitingResourceAllocator.getFirstValidGap(
+                queueWith(element(0, 2), element(3, 5), element(8, 9)),
+                candidate(1, 16));
+
+        assertThat(gap.getStartTime(), equalTo(day(5)));
+        assertThat(gap.getEndTime(), equalTo(day(8)));
+    }
+
+    @Test
+    public void afterTheLastElementTheGapStartsAtTheEarliestStart() {
+        Gap gap = LimitingResourceAllocator.getFirstValidGap(
+                queueWith(element(0, 2), element(3, 5)), candidate(9, 16));
+
+        assertThat(gap.getStartTime(), equalTo(day(9)));
+        assertThat(gap.getEndTime(), nullValue());
+    }
+
+}
@@ -0,0 +1,107 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2014 Igalia, S.L.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.test.hibernate.statistics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.libreplan.business.BusinessGlobalNames.BUSINESS_SPRING_CONFIG_FILE;
+import static org.libreplan.business.test.BusinessGlobalNames.BUSINESS_SPRING_CONFIG_TEST_FILE;
+
+import java.util.UUID;
+
+import org.hibernate.SessionFactory;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.libreplan.business.common.exceptions.InstanceNotFoundException;
+import org.libreplan.business.hibernate.statistics.QueryStatistics;
+import org.libreplan.business.labels.daos.ILabelTypeDAO;
+import org.libreplan.business.labels.entities.Label;
+import org.libreplan.business.labels.entities.LabelType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Tests for {@link QueryStatistics}
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(locations = { BUSINESS_SPRING_CONFIG_FILE,
+        BUSINESS_SPRING_CONFIG_TEST_FILE })
+public class QueryStatisticsTest {
+
+    @Autowired
+    private ILabelTypeDAO labelTypeDAO;
+
+    @Autowired
+    private SessionFactory sessionFactory;
+
+    @After
+    public void stopRecording() {
+        QueryStatistics.stop();
+    }
+
+    private LabelType givenSavedLabelTypeWithLabels(int labels) {
+        LabelType result = LabelType.create(UUID.randomUUID().toString(),
+                UUID.randomUUID().toString());
+        for (int i = 0; i < labels; i++) {
+            result.addLabel(Label.create(UUID.randomUUID().toString(), UUID
+                    .randomUUID().toString()));
+        }
+        labelTypeDAO.save(result);
+        labelTypeDAO.flush();
+        return result;
+    }
+
+    @Test
+    public void itIsNotRecordingIfNotStarted() {
+        assertNull(QueryStatistics.stop());
+    }
+
+    @Test
+    @Transactional
+    public void theStatementsExecutedAreRecorded() {
+        QueryStatistics.start();
+        givenSavedLabelTypeWithLabels(2);
+        QueryStatistics statistics = QueryStatistics.stop();
+
+        assertTrue(statistics.getStatements() >= 3);
+        assertNull(QueryStatistics.stop());
+    }
+
+    @Test
+    @Transactional
+    public void theEntitiesLoadedAndTheCollectionsFetchedAreRecorded()
+            throws InstanceNotFoundException {
+        LabelType labelType = givenSavedLabelTypeWithLabels(2);
+        sessionFactory.getCurrentSession().clear();
+
+        QueryStatistics.start();
+        LabelType loaded = labelTypeDAO.find(labelType.getId());
+        assertEquals(2, loaded.getLabels().size());
+        QueryStatistics statistics = QueryStatistics.stop();
+
+        assertEquals(3, statistics.getEntityLoads());
+        assertEquals(1, statistics.getCollectionFetches());
+    }
+
+}
@@ -27,9 +27,16 @@ import static org.junit.Assert.assertTrue;
 import static org.libreplan.business.BusinessGlobalNames.BUSINESS_SPRING_CONFIG_FILE;
 import static org.libreplan.business.test.BusinessGlobalNames.BUSINESS_SPRING_CONFIG_TEST_FILE;
 
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.List;
 import java.util.UUID;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.EntityKey;
+
 import org.joda.time.LocalDate;
 import org.junit.Before;
 import org.junit.Test;
@@ -38,15 +45,29 @@ import org.libreplan.business.calendars.daos.IBaseCalendarDAO;
 import org.libreplan.business.calendars.entities.BaseCalendar;
 import org.libreplan.business.common.IAdHocTransactionService;
 import org.libreplan.business.common.IOnTransaction;
+import org.libreplan.business.common.exceptions.InstanceNotFoundException;
 import org.libreplan.business.common.exceptions.ValidationException;
+import org.libreplan.business.costcategories.daos.ITypeOfWorkHoursDAO;
+import org.libreplan.business.costcategories.entities.TypeOfWorkHours;
 import org.libreplan.business.externalcompanies.entities.DeadlineCommunication;
 import org.libreplan.business.orders.daos.IOrderDAO;
 import org.libreplan.business.orders.entities.Order;
+import org.libreplan.business.orders.entities.OrderLine;
+import org.libreplan.business.reports.dtos.OrderCostsPerResourceDTO;
+import org.libreplan.business.resources.daos.IResourceDAO;
+import org.libreplan.business.resources.entities.Criterion;
+import org.libreplan.business.resources.entities.Worker;
 import org.libreplan.business.scenarios.IScenarioManager;
 import org.libreplan.business.scenarios.bootstrap.IScenariosBootstrap;
 import org.libreplan.business.scenarios.entities.OrderVersion;
 import org.libreplan.business.test.calendars.entities.BaseCalendarTest;
 import org.libreplan.business.test.planner.daos.ResourceAllocationDAOTest;
+import org.libreplan.business.workingday.EffortDuration;
+import org.libreplan.business.workreports.daos.IWorkReportDAO;
+import org.libreplan.business.workreports.daos.IWorkReportTypeDAO;
+import org.libreplan.business.workreports.entities.WorkReport;
+import org.libreplan.business.workreports.entities.WorkReportLine;
+import org.libreplan.business.workreports.entities.WorkReportType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
@@ -88,6 +109,21 @@ public class OrderDAOTest {
     @Autowired
     private IAdHocTransactionService transactionService;
 
+    @Autowired
+    private IResourceDAO resourceDAO;
+
+    @Autowired
+    private ITypeOfWorkHoursDAO typeOfWorkHoursDAO;
+
+    @Autowired
+    private IWorkReportTypeDAO workReportTypeDAO;
+
+    @Autowired
+    private IWorkReportDAO workReportDAO;
+
+    @Autowired
+    private SessionFactory sessionFactory;
+
     @Test
     @Transactional
     public void testInSpringContainer() {
@@ -207,4 +243,128 @@ public class OrderDAOTest {
         });
     }
 
+    private static final LocalDate COSTS_DAY = new LocalDate(2000, 1, 3);
+
+    private static Date toDate(LocalDate date) {
+        return date.toDateTimeAtStartOfDay().toDate();
+    }
+
+    private Order createValidOrderWithLine() {
+        Order order = createValidOrder(UUID.randomUUID().toString());
+        OrderLine line = OrderLine.createOrderLineWithUnfixedPercentage(100);
+        line.setName(UUID.randomUUID().toString());
+        line.setCode(UUID.randomUUID().toString());
+        order.add(line);
+        orderDAO.save(order);
+        return order;
+    }
+
+    private WorkReportLine addLine(WorkReport workReport, Worker worker,
+            TypeOfWorkHours typeOfWorkHours, Order order, LocalDate date) {
+        WorkReportLine result = WorkReportLine.create(workReport);
+        workReport.addWorkReportLine(result);
+        result.setDate(toDate(date));
+        result.setEffort(EffortDuration.hours(8));
+        result.setResource(worker);
+        result.setOrderElement(order.getChildren().get(0));
+        result.setTypeOfWorkHours(typeOfWorkHours);
+        return result;
+    }
+
+    /**
+     * Stores two orders with a line each and the work reported on them: a
+     * day for each one and another day, a month later, for the first one.
+     * The cost of the hours is the default price of their type, 10.
+     *
+     * @return the ids of the orders
+     */
+    private List<Long> givenStoredOrdersWithWorkReported() {
+        return transactionService
+                .runOnAnotherTransaction(new IOnTransaction<List<Long>>() {
+
+                    @Override
+                    public List<Long> execute() {
+                        Order order = createValidOrderWithLine();
+                        Order another = createValidOrderWithLine();
+
+                        Worker worker = Worker.create();
+                        worker.setFirstName(UUID.randomUUID().toString());
+                        worker.setSurname(UUID.randomUUID().toString());
+                        worker.setNif(UUID.randomUUID().toString());
+                        resourceDAO.save(worker);
+
+                        TypeOfWorkHours typeOfWorkHours = TypeOfWorkHours
+                                .create(UUID.randomUUID().toString(), UUID
+                                        .randomUUID().toString());
+                        typeOfWorkHours.setDefaultPrice(BigDecimal.TEN);
+                        typeOfWorkHoursDAO.save(typeOfWorkHours);
+
+                        WorkReportType workReportType = WorkReportType.create(
+                                UUID.randomUUID().toString(), UUID
+                                        .randomUUID().toString());
+                        workReportTypeDAO.save(workReportType);
+                        WorkReport workReport = WorkReport
+                                .create(workReportType);
+                        addLine(workReport, worker, typeOfWorkHours, order,
+                                COSTS_DAY);
+                        addLine(workReport, worker, typeOfWorkHours, another,
+                                COSTS_DAY);
+                        addLine(workReport, worker, typeOfWorkHours, order,
+                                COSTS_DAY.plusMonths(1));
+                        workReportDAO.save(workReport);
+                        workReportDAO.flush();
+
+                        return Arrays.asList(order.getId(), another.getId());
+                    }
+                });
+    }
+
+    private boolean anyWorkReportLineInSession() {
+        for (Object each : sessionFactory.getCurrentSession().getStatistics()
+                .getEntityKeys()) {
+            if (((EntityKey) each).getEntityName().equals(
+                    WorkReportLine.class.getName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Test
+    @Transactional
+    public void theCostsPerResourceAreFilteredByOrderAndDates()
+            throws InstanceNotFoundException {
+        List<Long> orderIds = givenStoredOrdersWithWorkReported();
+        Order order = orderDAO.find(orderIds.get(0));
+
+        List<OrderCostsPerResourceDTO> costs = orderDAO
+                .getOrderCostsPerResource(Arrays.asList(order),
+                        toDate(COSTS_DAY.minusDays(1)),
+                        toDate(COSTS_DAY.plusDays(1)),
+                        Collections.<Criterion> emptyList());
+
+        assertThat(costs.size(), equalTo(1));
+        OrderCostsPerResourceDTO cost = costs.get(0);
+        assertThat(cost.getOrderName(), equalTo(order.getName()));
+        assertThat(cost.getDate(), equalTo(toDate(COSTS_DAY)));
+        assertThat(cost.getNumHours(), equalTo(new BigDecimal("8.00")));
+        assertThat(cost.getCost(), equalTo(new BigDecimal("80.00")));
+    }
+
+    @Test
+    @Transactional
+    public void theWorkReportLinesAreNotKeptInTheSession() {
+        List<Long> orderIds = givenStoredOrdersWithWorkReported();
+        List<Order> orders = Arrays.asList(orderDAO.findExistingEntity(orderIds
+                .get(0)), orderDAO.findExistingEntity(orderIds.get(1)));
+
+        List<OrderCostsPerResourceDTO> costs = orderDAO
+                .getOrderCostsPerResource(orders, toDate(COSTS_DAY),
+                        toDate(COSTS_DAY.plusMonths(1)),
+                        Collections.<Criterion> emptyList());
+
+        assertThat(costs.size(), equalTo(3));
+        assertFalse(anyWorkReportLineInSession());
+    }
+
 }
@@ -33,6 +33,7 @@ import java.math.BigDecimal;
 import java.math.MathContext;
 import java.math.RoundingMode;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
@@ -1104,6 +1105,86 @@ public class OrderElementTest {
                 sameValueAs(division.divide(4545, 10000)));
     }
 
+    @Test
+    @Transactional
+    public void checkAdvancePercentageChildrenWithChildWithoutHours()
+            throws DuplicateValueTrueReportGlobalAdvanceException,
+            DuplicateAdvanceAssignmentForOrderElementException {
+        OrderLineGroup orderLineGroup = givenOrderLineGroupWithTwoOrderLines(
+                1000, 2000);
+        orderLineGroup.add(givenOrderLine("OrderLine3", "1.3", 0));
+
+        List<OrderElement> children = orderLineGroup.getChildren();
+        AdvanceType advanceType = PredefinedAdvancedTypes.UNITS.getType();
+
+        LocalDate one = new LocalDate(2009, 9, 1);
+        LocalDate two = new LocalDate(2009, 9, 2);
+        LocalDate three = new LocalDate(2009, 9, 3);
+
+        addAvanceAssignmentWithMeasurements(children.get(0), advanceType, true,
+                new BigDecimal(1000), one, new BigDecimal(100), two,
+                new BigDecimal(400), three, new BigDecimal(500));
+        addAvanceAssignmentWithMeasurement(children.get(1), advanceType,
+                new BigDecimal(2000), new BigDecimal(200), true, two);
+        addAvanceAssignmentWithMeasurement(children.get(2), advanceType,
+                new BigDecimal(100), new BigDecimal(100), true, one);
+
+        assertThat(orderLineGroup.getAdvancePercentageChildren(one),
+                equalTo(new BigDecimal("0.0333")));
+        assertThat(orderLineGroup.getAdvancePercentageChildren(two),
+                equalTo(new BigDecimal("0.2000")));
+        assertThat(orderLineGroup.getAdvancePercentageChildren(three),
+                equalTo(new BigDecimal("0.2333")));
+        assertThat(orderLineGroup.getAdvancePercentageChildren(),
+                equalTo(new BigDecimal("0.2333")));
+
+        for (LocalDate each : Arrays.asList(null, one, two, three)) {
+            assertThat(orderLineGroup.getAdvancePercentageChildren(each),
+                    equalTo(weightedByAllChildrenHours(orderLineGroup, each)));
+        }
+
+        DirectAdvanceAssignment childrenAdvance = null;
+        for (IndirectAdvanceAssignment each : orderLineGroup
+                .getIndirectAdvanceAssignments()) {
+            if (each.getAdvanceType().getUnitName()
+                    .equals(PredefinedAdvancedTypes.CHILDREN.getTypeName())) {
+                childrenAdvance = orderLineGroup
+                        .calculateFakeDirectAdvanceAssignment(each);
+            }
+        }
+        SortedSet<AdvanceMeasurement> measurements = childrenAdvance
+                .getAdvanceMeasurements();
+        assertThat(measurements.size(), equalTo(3));
+        for (AdvanceMeasurement each : measurements) {
+            assertThat(each.getValue(), equalTo(weightedByAllChildrenHours(
+                    orderLineGroup, each.getDate()).multiply(
+                    new BigDecimal(100))));
+        }
+    }
+
+    /**
+     * The progress of the children as it was calculated before the hours of
+     * each child were kept, asking for the hours of the group and of every
+     * child, including the ones without hours
+     */
+    private static BigDecimal weightedByAllChildrenHours(
+            OrderLineGroup orderLineGroup, LocalDate date) {
+        Integer hours = orderLineGroup.getWorkHours();
+        BigDecimal result = new BigDecimal(0);
+        if (hours > 0) {
+            for (OrderElement orderElement : orderLineGroup.getChildren()) {
+                BigDecimal childPercentage = date == null ? orderElement
+                        .getAdvancePercentage() : orderElement
+                        .getAdvancePercentage(date);
+                result = result.add(childPercentage.multiply(new BigDecimal(
+                        orderElement.getWorkHours())));
+            }
+            result = result.divide(new BigDecimal(hours).setScale(2), 4,
+                    RoundingMode.DOWN);
+        }
+        return result;
+    }
+
     public static void removeReportGlobalAdvanceFromChildrenAdvance(
             OrderLineGroup orderLineGroup) {
         for (IndirectAdvanceAssignment indirectAdvanceAssignment : orderLineGroup
@@ -0,0 +1,138 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2014 Igalia, S.L.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.business.test.planner.chart;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.libreplan.business.workingday.EffortDuration.hours;
+import static org.libreplan.business.workingday.EffortDuration.zero;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.joda.time.Days;
+import org.joda.time.LocalDate;
+import org.junit.Before;
+import org.junit.Test;
+import org.libreplan.business.planner.chart.ILoadChartData;
+import org.libreplan.business.planner.chart.ResourceLoadChartData;
+import org.libreplan.business.planner.chart.ResourceLoadChartDataByMonth;
+import org.libreplan.business.planner.chart.ResourceLoadChartDataByMonth.IMonthCalculator;
+import org.libreplan.business.planner.entities.DayAssignment;
+import org.libreplan.business.planner.entities.SpecificDayAssignment;
+import org.libreplan.business.resources.entities.Resource;
+import org.libreplan.business.resources.entities.Worker;
+
+public class ResourceLoadChartDataByMonthTest {
+
+    private List<LocalDate> calculatedMonths;
+
+    private ResourceLoadChartDataByMonth data;
+
+    @Before
+    public void setUp() {
+        calculatedMonths = new ArrayList<LocalDate>();
+        data = new ResourceLoadChartDataByMonth(new IMonthCalculator() {
+
+            @Override
+            public ResourceLoadChartData calculate(LocalDate startInclusive,
+                    LocalDate endExclusive) {
+                assertEquals(startInclusive.plusMonths(1), endExclusive);
+                calculatedMonths.add(startInclusive);
+                return new ResourceLoadChartData(
+                        new ArrayList<DayAssignment>(),
+                        new ArrayList<Resource>());
+            }
+        });
+    }
+
+    @Test
+    public void onlyTheMonthsOfTheIntervalAreCalculated() {
+        data.on(new LocalDate(2013, 1, 20), new LocalDate(2013, 3, 5));
+        assertEquals(3, calculatedMonths.size());
+        assertEquals(new LocalDate(2013, 1, 1), calculatedMonths.get(0));
+        assertEquals(new LocalDate(2013, 2, 1), calculatedMonths.get(1));
+        assertEquals(new LocalDate(2013, 3, 1), calculatedMonths.get(2));
+    }
+
+    @Test
+    public void theMonthsAlreadyCalculatedAreReused() {
+        data.on(new LocalDate(2013, 1, 1), new LocalDate(2013, 3, 1));
+        data.on(new LocalDate(2013, 2, 10), new LocalDate(2013, 4, 1));
+        assertEquals(3, calculatedMonths.size());
+    }
+
+    @Test
+    public void theMonthsOfAnIntervalLongerThanTheCacheAreNotEvictedByItself() {
+        LocalDate start = new LocalDate(2010, 1, 1);
+        LocalDate end = new LocalDate(2014, 1, 1);
+        data.on(start, end);
+        data.on(start, end);
+        assertEquals(48, calculatedMonths.size());
+    }
+
+    /**
+     * The worker has no calendar, so eight hours are available every day
+     */
+    @Test
+    public void theAvailabilityCoversEveryDayOfTheMonthsCalculated() {
+        final Worker worker = Worker.create("first name", "surname", "nif");
+        final LocalDate firstAssignment = new LocalDate(2013, 1, 15);
+        ResourceLoadChartDataByMonth byMonth = new ResourceLoadChartDataByMonth(
+                new IMonthCalculator() {
+
+                    @Override
+                    public ResourceLoadChartData calculate(
+                            LocalDate startInclusive, LocalDate endExclusive) {
+                        List<DayAssignment> assignments = new ArrayList<DayAssignment>();
+                        if (startInclusive.getMonthOfYear() == 1) {
+                            assignments.add(SpecificDayAssignment.create(
+                                    firstAssignment, hours(3), worker));
+                        }
+                        return ResourceLoadChartData.onWholeInterval(
+                                assignments, Arrays.<Resource> asList(worker),
+                                startInclusive, endExclusive);
+                    }
+                });
+        LocalDate start = new LocalDate(2013, 1, 1);
+        LocalDate end = new LocalDate(2013, 3, 1);
+
+        ILoadChartData result = byMonth.on(start, end);
+
+        assertEquals(Days.daysBetween(start, end).getDays(), result
+                .getAvailability().size());
+        assertEquals(hours(8), result.getAvailability().get(start));
+        assertEquals(hours(8),
+                result.getAvailability().get(new LocalDate(2013, 2, 10)));
+        assertEquals(zero(), result.getLoad().get(start));
+        assertEquals(hours(3), result.getLoad().get(firstAssignment));
+        assertEquals(zero(), result.getLoad().get(new LocalDate(2013, 2, 10)));
+    }
+
+    @Test
+    public void anEmptyIntervalCalculatesNothing() {
+        ILoadChartData result = data.on(new LocalDate(2013, 1, 20),
+                new LocalDate(2013, 1, 10));
+        assertTrue(calculatedMonths.isEmpty());
+        assertTrue(result.getLoad().isEmpty());
+    }
+
+}
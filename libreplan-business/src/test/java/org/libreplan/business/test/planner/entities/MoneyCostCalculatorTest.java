@@ -19,6 +19,8 @@
 package org.libreplan.business.test.planner.entities;
 
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
 import static org.libreplan.business.BusinessGlobalNames.BUSINESS_SPRING_CONFIG_FILE;
 import static org.libreplan.business.test.BusinessGlobalNames.BUSINESS_SPRING_CONFIG_TEST_FILE;
@@ -56,6 +58,7 @@ import org.libreplan.business.orders.entities.OrderLine;
 import org.libreplan.business.orders.entities.OrderLineGroup;
 import org.libreplan.business.planner.entities.IMoneyCostCalculator;
 import org.libreplan.business.planner.entities.MoneyCostCalculator;
+import org.libreplan.business.planner.entities.MoneyCostCalculator.MoneyCost;
 import org.libreplan.business.resources.daos.IResourceDAO;
 import org.libreplan.business.resources.entities.Resource;
 import org.libreplan.business.resources.entities.Worker;
@@ -353,6 +356,44 @@ public class MoneyCostCalculatorTest {
                 equalTo(new BigDecimal(500).setScale(2)));
     }
 
+    @Test
+    @Transactional
+    public void theMoneyCostOfTheWholeTreeIsCalculatedAtOnce() {
+        givenExampleOrderLineGroup();
+        assertNull(moneyCostCalculator.getCalculatedMoneyCost(orderElements
+                .get(1)));
+
+        moneyCostCalculator.calculateMoneyCostOfTree(orderElements.get(0));
+
+        for (OrderElement each : orderElements) {
+            assertNotNull(moneyCostCalculator.getCalculatedMoneyCost(each));
+        }
+        assertThat(moneyCostCalculator.getHoursMoneyCost(orderElements.get(0)),
+                equalTo(new BigDecimal(1500).setScale(2)));
+        assertThat(moneyCostCalculator.getHoursMoneyCost(orderElements.get(1)),
+                equalTo(new BigDecimal(500).setScale(2)));
+        assertThat(
+                moneyCostCalculator.getCalculatedMoneyCost(orderElements.get(0))
+                        .getCostOfHours(),
+                equalTo(new BigDecimal(1500).setScale(2)));
+    }
+
+    @Test
+    @Transactional
+    public void theCalculatedMoneyCostIsNotAvailableAfterResettingTheMap() {
+        givenExampleOrderLineGroup();
+        moneyCostCalculator.calculateMoneyCostOfTree(orderElements.get(0));
+        MoneyCost moneyCost = moneyCostCalculator
+                .getCalculatedMoneyCost(orderElements.get(0));
+
+        moneyCostCalculator.resetMoneyCostMap();
+
+        assertNull(moneyCostCalculator.getCalculatedMoneyCost(orderElements
+                .get(0)));
+        assertThat(moneyCost.getTotal(),
+                equalTo(new BigDecimal(1500).setScale(2)));
+    }
+
     @Test
     @Transactional
     public void exampleOrderLineGroupWithDifferentHours1() {
@@ -0,0 +1,201 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2014 Igalia, S.L.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.libreplan.business.test.planner.entities;
+
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.getCurrentArguments;
+import static org.easymock.EasyMock.isA;
+import static org.easymock.classextension.EasyMock.createNiceMock;
+import static org.easymock.classextension.EasyMock.replay;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.libreplan.business.workingday.EffortDuration.hours;
+import static org.libreplan.business.workingday.EffortDuration.zero;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.easymock.IAnswer;
+import org.joda.time.LocalDate;
+import org.junit.Test;
+import org.libreplan.business.calendars.entities.AvailabilityTimeLine;
+import org.libreplan.business.calendars.entities.BaseCalendar;
+import org.libreplan.business.calendars.entities.Capacity;
+import org.libreplan.business.planner.entities.GenericResourceAllocation;
+import org.libreplan.business.planner.entities.SigmoidFunction;
+import org.libreplan.business.planner.entities.Task;
+import org.libreplan.business.resources.entities.Criterion;
+import org.libreplan.business.resources.entities.Resource;
+import org.libreplan.business.resources.entities.Worker;
+import org.libreplan.business.workingday.EffortDuration;
+import org.libreplan.business.workingday.IntraDayDate;
+import org.libreplan.business.workingday.IntraDayDate.PartialDay;
+import org.libreplan.business.workingday.ResourcesPerDay;
+
+/**
+ * Tests the distribution of hours done by {@link SigmoidFunction}.
+ */
+public class SigmoidFunctionTest {
+
+    private static final int QUARTER_OF_HOUR = 900;
+
+    @Test
+    public void theHoursFollowASigmoidCurve() {
+        int[] result = SigmoidFunction.secondsToAllocatePerDay(10, 80);
+        assertThat(result, equalTo(new int[] { 900, 3600, 5400, 16200, 43200,
+                77400, 76500, 43200, 16200, 5400 }));
+    }
+
+    @Test
+    public void theRemainderIsAddedWhereTheCurveKeepsGrowing() {
+        int[] result = SigmoidFunction.secondsToAllocatePerDay(5, 40);
+        assertThat(result, equalTo(new int[] { 900, 7200, 29700, 76500,
+                29700 }));
+    }
+
+    @Test
+    public void allTheHoursAreDistributedInQuartersOfHour() {
+        for (int days = 1; days < 200; days++) {
+            int[] result = SigmoidFunction.secondsToAllocatePerDay(days, 1000);
+            assertThat(result.length, equalTo(days));
+            int sum = 0;
+            for (int each : result) {
+                assertTrue(each % QUARTER_OF_HOUR == 0);
+                sum += each;
+            }
+            assertThat(sum, equalTo(1000 * 3600));
+        }
+    }
+
+    @Test
+    public void theFirstDayIsNotEmpty() {
+        int[] result = SigmoidFunction.secondsToAllocatePerDay(100, 10);
+        assertTrue(result[0] > 0);
+    }
+
+    @Test
+    public void aGenericAllocationKeepsTheHoursOverTheCapacityOfTheTaskCalendar() {
+        LocalDate start = new LocalDate(2006, 10, 5);
+        Task task = givenTaskWithCalendarOf8Hours(start, 5);
+        GenericResourceAllocation allocation = GenericResourceAllocation
+                .create(task);
+        allocation.forResources(givenWorkersWithoutLoadAndWithoutCalendar(3))
+                .allocate(ResourcesPerDay.amount(1));
+        assertThat(allocation.getAssignedEffort(), equalTo(hours(40)));
+
+        allocation.setAssignmentFunctionAndApplyIfNotFlat(SigmoidFunction
+                .create());
+
+        assertTrue(allocation.getAssignedHours(start.plusDays(3),
+                start.plusDays(4)) > 8);
+        assertThat(allocation.getAssignedEffort(), equalTo(hours(40)));
+    }
+
+    private Task givenTaskWithCalendarOf8Hours(LocalDate start, int days) {
+        IntraDayDate startDate = IntraDayDate.startOfDay(start);
+        IntraDayDate endDate = IntraDayDate.startOfDay(start.plusDays(days));
+        BaseCalendar calendar = givenCalendarNotOverAssignable(hours(8));
+        Task task = createNiceMock(Task.class);
+        expect(task.getCriterions()).andReturn(
+                Collections.singleton(givenCriterionSatisfiedByAll()))
+                .anyTimes();
+        expect(task.getStartDate()).andReturn(startDate.toDateTimeAtStartOfDay()
+                .toDate()).anyTimes();
+        expect(task.getIntraDayStartDate()).andReturn(startDate).anyTimes();
+        expect(task.getStartAsLocalDate()).andReturn(startDate.getDate())
+                .anyTimes();
+        expect(task.getEndDate()).andReturn(endDate.toDateTimeAtStartOfDay()
+                .toDate()).anyTimes();
+        expect(task.getIntraDayEndDate()).andReturn(endDate).anyTimes();
+        expect(task.getEndAsLocalDate()).andReturn(endDate.getDate())
+                .anyTimes();
+        expect(task.getFirstDayNotConsolidated()).andReturn(startDate)
+                .anyTimes();
+        expect(task.getCalendar()).andReturn(calendar).anyTimes();
+        replay(task);
+        return task;
+    }
+
+    private Criterion givenCriterionSatisfiedByAll() {
+        Criterion result = createNiceMock(Criterion.class);
+        expect(result.isSatisfiedBy(isA(Resource.class), isA(LocalDate.class)))
+                .andReturn(true).anyTimes();
+        replay(result);
+        return result;
+    }
+
+    private BaseCalendar givenCalendarNotOverAssignable(
+            EffortDuration workingDay) {
+        final Capacity capacity = Capacity.create(workingDay)
+                .notOverAssignableWithoutLimit();
+        BaseCalendar result = createNiceMock(BaseCalendar.class);
+        expect(result.getCapacityOn(isA(PartialDay.class))).andAnswer(
+                new IAnswer<EffortDuration>() {
+
+                    @Override
+                    public EffortDuration answer() throws Throwable {
+                        PartialDay day = (PartialDay) getCurrentArguments()[0];
+                        return day.limitWorkingDay(capacity
+                                .getStandardEffort());
+                    }
+                }).anyTimes();
+        expect(
+                result.asDurationOn(isA(PartialDay.class),
+                        isA(ResourcesPerDay.class))).andAnswer(
+                new IAnswer<EffortDuration>() {
+
+                    @Override
+                    public EffortDuration answer() throws Throwable {
+                        PartialDay day = (PartialDay) getCurrentArguments()[0];
+                        ResourcesPerDay resourcesPerDay = (ResourcesPerDay) getCurrentArguments()[1];
+                        return capacity.limitDuration(resourcesPerDay
+                                .asDurationGivenWorkingDayOf(day
+                                        .limitWorkingDay(capacity
+                                                .getStandardEffort())));
+                    }
+                }).anyTimes();
+        expect(result.getCapacityWithOvertime(isA(LocalDate.class)))
+                .andReturn(capacity).anyTimes();
+        expect(result.isActive(isA(LocalDate.class))).andReturn(true)
+                .anyTimes();
+        expect(result.canWorkOn(isA(LocalDate.class))).andReturn(true)
+                .anyTimes();
+        expect(result.getAvailability()).andReturn(
+                AvailabilityTimeLine.allValid()).anyTimes();
+        replay(result);
+        return result;
+    }
+
+    private List<Worker> givenWorkersWithoutLoadAndWithoutCalendar(int number) {
+        Worker[] result = new Worker[number];
+        for (int i = 0; i < number; i++) {
+            result[i] = createNiceMock(Worker.class);
+            expect(
+                    result[i].getAssignedDurationDiscounting(isA(Map.class),
+                            isA(LocalDate.class))).andReturn(zero())
+                    .anyTimes();
+            replay(result[i]);
+        }
+        return Arrays.asList(result);
+    }
+
+}
@@ -259,6 +259,22 @@ public class UntilFillingHoursAllocatorTest {
         assertThat(end, equalTo(expectedEnd));
     }
 
+    @Test
+    public void theDaysWithoutCapacityAreSkippedWithoutCreatingAssignments() {
+        LocalDate start = new LocalDate(2009, 10, 10);
+        AvailabilityTimeLine availability = AvailabilityTimeLine.allValid();
+        availability.invalidAt(start.plusDays(1));
+        availability.invalidAt(start.plusDays(2));
+        givenCalendarWithAvailability(availability, hours(8));
+        givenSpecificAllocations(ResourcesPerDay.amount(1));
+        IntraDayDate end = ResourceAllocation.allocating(allocations)
+                .untilAllocating(hours(20));
+        assertThat(end, equalTo(IntraDayDate.create(start.plusDays(4),
+                hours(4))));
+        assertThat(allocations.get(0).getBeingModified().getAssignments(),
+                haveHours(8, 8, 4));
+    }
+
     private void givenTaskOfDaysLength(int days) {
         this.initialLengthDaysForTask = days;
     }
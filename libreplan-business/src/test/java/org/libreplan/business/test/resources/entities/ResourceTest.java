@@ -278,6 +278,29 @@ public class ResourceTest {
                 criterionType, criterion), fromNow));
     }
 
+    @Test
+    @Transactional
+    public void theQueryExistsIfSomeNotDeletedSatisfactionIsMatched() {
+        Criterion criterion = CriterionDAOTest.createValidCriterion();
+        Worker worker = Worker.create("firstName", "surName", "2333232");
+        ICriterionType<Criterion> criterionType = createTypeThatMatches(criterion);
+        worker.addSatisfaction(new CriterionWithItsType(criterionType,
+                criterion), Interval.range(year(4000), year(5000)));
+
+        assertTrue(worker.query().from(criterion).enforcedInAll(
+                Interval.range(year(4001), year(4999))).exists());
+        assertFalse(worker.query().from(criterion).enforcedInAll(
+                Interval.range(year(4001), year(5001))).exists());
+        assertTrue(criterion.isSatisfiedBy(worker, year(4500)));
+
+        for (CriterionSatisfaction each : worker.getCriterionSatisfactions()) {
+            each.setIsDeleted(true);
+        }
+        assertFalse(worker.query().from(criterion).enforcedInAll(
+                Interval.range(year(4001), year(4999))).exists());
+        assertFalse(criterion.isSatisfiedBy(worker, year(4500)));
+    }
+
     @Test
     @Transactional
     public void testAddAtDate() {
@@ -27,15 +27,22 @@ import static junit.framework.Assert.assertTrue;
 import static org.libreplan.business.BusinessGlobalNames.BUSINESS_SPRING_CONFIG_FILE;
 import static org.libreplan.business.test.BusinessGlobalNames.BUSINESS_SPRING_CONFIG_TEST_FILE;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.SortedMap;
 
 import javax.annotation.Resource;
 
+import org.joda.time.LocalDate;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.libreplan.business.IDataBootstrap;
 import org.libreplan.business.common.exceptions.InstanceNotFoundException;
+import org.libreplan.business.orders.entities.OrderLine;
+import org.libreplan.business.workingday.EffortDuration;
 import org.libreplan.business.workreports.daos.IWorkReportLineDAO;
 import org.libreplan.business.workreports.entities.WorkReportLine;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -95,4 +102,80 @@ public class WorkReportLineDAOTest extends AbstractWorkReportTest {
                 .list(WorkReportLine.class);
         assertEquals(previous + 2, list.size());
     }
+
+    @Test
+    @Transactional
+    public void theHoursPerDayAddTheHoursOfTheLinesOfEachDay() {
+        WorkReportLine line1 = createValidWorkReportLine();
+        line1.setDate(new LocalDate(1990, 1, 1).toDateTimeAtStartOfDay()
+                .toDate());
+        line1.setEffort(EffortDuration.minutes(90));
+        workReportLineDAO.save(line1);
+        WorkReportLine line2 = createValidWorkReportLine();
+        line2.setDate(new LocalDate(1990, 1, 1).toDateTimeAtStartOfDay()
+                .toDate());
+        line2.setEffort(EffortDuration.minutes(90));
+        workReportLineDAO.save(line2);
+        WorkReportLine line3 = createValidWorkReportLine();
+        line3.setDate(new LocalDate(1990, 1, 2).toDateTimeAtStartOfDay()
+                .toDate());
+        line3.setEffort(EffortDuration.hours(2));
+        workReportLineDAO.save(line3);
+        workReportLineDAO.flush();
+
+        SortedMap<LocalDate, BigDecimal> hoursPerDay = workReportLineDAO
+                .getHoursPerDay();
+        assertEquals(new BigDecimal("3.00"),
+                hoursPerDay.get(line1.getLocalDate()));
+        assertEquals(new BigDecimal("2.00"),
+                hoursPerDay.get(line3.getLocalDate()));
+    }
+
+    @Test
+    @Transactional
+    public void theLinesOfTheGivenOrderElementIdsAreFound() {
+        WorkReportLine line1 = createValidWorkReportLine();
+        workReportLineDAO.save(line1);
+        WorkReportLine line2 = createValidWorkReportLine();
+        workReportLineDAO.save(line2);
+        WorkReportLine line3 = createValidWorkReportLine();
+        workReportLineDAO.save(line3);
+        workReportLineDAO.flush();
+
+        List<WorkReportLine> found = workReportLineDAO
+                .findByOrderElementIds(Arrays.asList(line1.getOrderElement()
+                        .getId(), line3.getOrderElement().getId()));
+
+        assertEquals(2, found.size());
+        assertTrue(found.contains(line1));
+        assertTrue(found.contains(line3));
+    }
+
+    @Test
+    @Transactional
+    public void theIdsOfTheOrderElementsNotSavedAreSkipped() {
+        WorkReportLine line = createValidWorkReportLine();
+        workReportLineDAO.save(line);
+        workReportLineDAO.flush();
+        OrderLine notSaved = OrderLine.create();
+
+        List<WorkReportLine> found = workReportLineDAO
+                .findByOrderElementIds(Arrays.asList(notSaved.getId(), line
+                        .getOrderElement().getId()));
+
+        assertEquals(Arrays.asList(line), found);
+        assertTrue(workReportLineDAO.findByOrderElementIds(
+                Arrays.asList(notSaved.getId())).isEmpty());
+    }
+
+    @Test
+    @Transactional
+    public void noLinesAreFoundForNoOrderElementIds() {
+        WorkReportLine line = createValidWorkReportLine();
+        workReportLineDAO.save(line);
+        workReportLineDAO.flush();
+
+        assertTrue(workReportLineDAO.findByOrderElementIds(
+                new ArrayList<Long>()).isEmpty());
+    }
 }
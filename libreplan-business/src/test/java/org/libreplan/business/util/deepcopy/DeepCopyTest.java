@@ -388,4 +388,17 @@ public class DeepCopyTest {
         assertNotSame(copied.getSet1(), copied.getSet2());
     }
 
+    @Test
+    public void successiveCopiesOfTheSameClassBehaveTheSame() {
+        for (int i = 0; i < 3; i++) {
+            EntityA entityA = new EntityA();
+            entityA.setStringProperty("foo");
+            entityA.setIgnoredProperty("blabla");
+            EntityA copy = new DeepCopy().copy(entityA);
+            assertThat(copy.getStringProperty(), equalTo("foo"));
+            assertThat(copy.getIgnoredProperty(), nullValue());
+            assertTrue(copy.isFirstHookCalled());
+        }
+    }
+
 }
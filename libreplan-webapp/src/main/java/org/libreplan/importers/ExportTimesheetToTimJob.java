@@ -26,15 +26,20 @@ import org.apache.commons.logging.LogFactory;
 import org.libreplan.business.common.entities.ConnectorException;
 import org.quartz.JobExecutionContext;
 import org.quartz.JobExecutionException;
+import org.quartz.StatefulJob;
 import org.springframework.context.ApplicationContext;
 import org.springframework.scheduling.quartz.QuartzJobBean;
 
 /**
  * A job that exports time sheets to Tim SOAP server
  *
+ * It is a {@link StatefulJob}, so a new execution is not started while the
+ * previous one is still running.
+ *
  * @author Miciele Ghiorghis <m.ghiorghis@antoniusziekenhuis.nl>
  */
-public class ExportTimesheetToTimJob extends QuartzJobBean {
+public class ExportTimesheetToTimJob extends QuartzJobBean implements
+        StatefulJob {
     private static final Log LOG = LogFactory
                                          .getLog(ExportTimesheetToTimJob.class);
 
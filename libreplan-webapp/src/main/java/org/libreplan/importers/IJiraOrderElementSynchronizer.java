@@ -88,6 +88,22 @@ public interface IJiraOrderElementSynchronizer {
      */
     void syncOrderElementsWithJiraIssues(List<IssueDTO> issues, Order order);
 
+    /**
+     * Synchronizes the <code>order</code> with the jira <code>issues</code>
+     * and saves it, its synchronization info and its timesheets on a new
+     * transaction. The <code>order</code> can have been loaded in another
+     * session, as it's reloaded before being synchronized.
+     *
+     * @param key
+     *            the key(label)
+     * @param order
+     *            an existing order
+     * @param issues
+     *            jira issues
+     */
+    void syncOrderOnItsOwnTransaction(String key, Order order,
+            List<IssueDTO> issues);
+
     /**
      * Saves synchronization info
      *
@@ -118,7 +134,9 @@ public interface IJiraOrderElementSynchronizer {
      * {@link IJiraOrderElementSynchronizer#syncOrderElementsWithJiraIssues(List, Order)
      *
      * It gets then an already synchronized orders from the
-     * {@link OrderSyncInfo} and re-synchronize them
+     * {@link OrderSyncInfo} and re-synchronize them, starting from the ones
+     * synchronized longer ago. Each order is saved on its own transaction, so
+     * a failure only discards the changes of that order.
      *
      * @return a list of {@link SynchronizationInfo}
      *
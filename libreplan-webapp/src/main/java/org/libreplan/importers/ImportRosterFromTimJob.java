@@ -26,6 +26,7 @@ import org.apache.commons.logging.LogFactory;
 import org.libreplan.business.common.entities.ConnectorException;
 import org.quartz.JobExecutionContext;
 import org.quartz.JobExecutionException;
+import org.quartz.StatefulJob;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Scope;
@@ -35,11 +36,15 @@ import org.springframework.stereotype.Component;
 /**
  * A job that import rosters from Tim SOAP server
  *
+ * It is a {@link StatefulJob}, so a new execution is not started while the
+ * previous one is still running.
+ *
  * @author Miciele Ghiorghis <m.ghiorghis@antoniusziekenhuis.nl>
  */
 @Component
 @Scope(BeanDefinition.SCOPE_SINGLETON)
-public class ImportRosterFromTimJob extends QuartzJobBean {
+public class ImportRosterFromTimJob extends QuartzJobBean implements
+        StatefulJob {
     private static final Log LOG = LogFactory
                                          .getLog(ImportRosterFromTimJob.class);
 
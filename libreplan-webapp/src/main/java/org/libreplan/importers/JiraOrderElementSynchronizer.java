@@ -28,6 +28,7 @@ import java.net.URL;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
@@ -500,9 +501,19 @@ public class JiraOrderElementSynchronizer implements IJiraOrderElementSynchroniz
     }
 
     @Override
-    @Transactional
     public List<SynchronizationInfo> syncOrderElementsWithJiraIssues() throws ConnectorException {
-        Connector connector = getJiraConnector();
+        final Connector connector = adHocTransactionService
+                .runOnReadOnlyTransaction(new IOnTransaction<Connector>() {
+                    @Override
+                    public Connector execute() {
+                        Connector result = getJiraConnector();
+                        if (result != null) {
+                            // forces the load of the properties
+                            result.getPropertiesAsMap();
+                        }
+                        return result;
+                    }
+                });
         if (connector == null) {
             throw new ConnectorException(_("JIRA connector not found"));
         }
@@ -511,14 +522,13 @@ public class JiraOrderElementSynchronizer implements IJiraOrderElementSynchroniz
                     _("Connection values of JIRA connector are invalid"));
         }
 
-        List<OrderSyncInfo> orderSyncInfos = orderSyncInfoDAO
-                .findByConnectorName(PredefinedConnectors.JIRA.getName());
+        List<OrderSyncInfo> orderSyncInfos = getOrderSyncInfosOldestFirst();
 
         synchronizationInfo = new SynchronizationInfo(_("Synchronization"));
 
         List<SynchronizationInfo> syncInfos = new ArrayList<SynchronizationInfo>();
 
-        if (orderSyncInfos == null || orderSyncInfos.isEmpty()) {
+        if (orderSyncInfos.isEmpty()) {
             LOG.warn("No items found in 'OrderSyncInfo' to synchronize with JIRA issues");
             synchronizationInfo
                     .addFailedReason(_("No items found in 'OrderSyncInfo' to synchronize with JIRA issues"));
@@ -526,12 +536,16 @@ public class JiraOrderElementSynchronizer implements IJiraOrderElementSynchroniz
             return syncInfos;
         }
 
+        long startTime = System.currentTimeMillis();
+        int failed = 0;
         for (OrderSyncInfo orderSyncInfo : orderSyncInfos) {
             Order order = orderSyncInfo.getOrder();
             LOG.info("Synchronizing '" + order.getName() + "'");
             synchronizationInfo = new SynchronizationInfo(_(
                     "Synchronization order {0}", order.getName()));
 
+            // JIRA is queried before opening the transaction, so no database
+            // connection is held while waiting for it
             List<IssueDTO> issueDTOs = getJiraIssues(orderSyncInfo.getKey(),
                     connector);
             if (issueDTOs == null || issueDTOs.isEmpty()) {
@@ -541,25 +555,114 @@ public class JiraOrderElementSynchronizer implements IJiraOrderElementSynchroniz
                         "No JIRA issues found for key {0}",
                         orderSyncInfo.getKey()));
                 syncInfos.add(synchronizationInfo);
+                failed++;
                 continue;
             }
 
-            orderModel.initEdit(order, null);
-            syncOrderElementsWithJiraIssues(issueDTOs, order);
-            if (!synchronizationInfo.isSuccessful()) {
-                syncInfos.add(synchronizationInfo);
-                continue;
+            try {
+                syncOrderOnItsOwnTransaction(orderSyncInfo.getKey(), order,
+                        issueDTOs);
+            } catch (RuntimeException e) {
+                LOG.error("Synchronization of '" + order.getName()
+                        + "' failed", e);
+                synchronizationInfo.addFailedReason(e.getMessage());
             }
-            orderModel.save(false);
-
-            saveSyncInfo(orderSyncInfo.getKey(), order);
-
-            jiraTimesheetSynchronizer.syncJiraTimesheetWithJiraIssues(
-                    issueDTOs, order);
             if (!synchronizationInfo.isSuccessful()) {
                 syncInfos.add(synchronizationInfo);
+                failed++;
             }
         }
+        logThroughput(orderSyncInfos.size(), failed, startTime);
         return syncInfos;
     }
+
+    /**
+     * The {@link OrderSyncInfo} synchronized longer ago go first. As the last
+     * synchronization date of each order is saved as soon as it is
+     * synchronized, a run that was interrupted is resumed by the next one
+     * starting from the orders that were not synchronized yet.
+     */
+    private List<OrderSyncInfo> getOrderSyncInfosOldestFirst() {
+        List<OrderSyncInfo> result = adHocTransactionService
+                .runOnReadOnlyTransaction(new IOnTransaction<List<OrderSyncInfo>>() {
+                    @Override
+                    public List<OrderSyncInfo> execute() {
+                        List<OrderSyncInfo> infos = orderSyncInfoDAO
+                                .findByConnectorName(PredefinedConnectors.JIRA
+                                        .getName());
+                        if (infos == null) {
+                            return new ArrayList<OrderSyncInfo>();
+                        }
+                        for (OrderSyncInfo each : infos) {
+                            // forces the load of the order
+                            each.getOrder().getName();
+                        }
+                        return new ArrayList<OrderSyncInfo>(infos);
+                    }
+                });
+        Collections.sort(result, new Comparator<OrderSyncInfo>() {
+            @Override
+            public int compare(OrderSyncInfo o1, OrderSyncInfo o2) {
+                return o1.getLastSyncDate().compareTo(o2.getLastSyncDate());
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Every order is saved on its own transaction, so the locks taken while
+     * saving it are released before going on with the next one and a failure
+     * only rolls back the changes of that order. The order received was loaded
+     * in another session, so the one reloaded by the {@link IOrderModel} is
+     * the one synchronized and saved. If the synchronization fails, the
+     * transaction is rolled back so the order elements already modified are
+     * not flushed on commit.
+     */
+    @Override
+    public void syncOrderOnItsOwnTransaction(final String key,
+            final Order detachedOrder, final List<IssueDTO> issueDTOs) {
+        try {
+            adHocTransactionService
+                    .runOnTransaction(new IOnTransaction<Void>() {
+                        @Override
+                        public Void execute() {
+                            orderModel.initEdit(detachedOrder, null);
+                            Order order = orderModel.getOrder();
+                            syncOrderElementsWithJiraIssues(issueDTOs, order);
+                            if (!synchronizationInfo.isSuccessful()) {
+                                throw new SynchronizationFailedException();
+                            }
+                            orderModel.save(false);
+
+                            saveSyncInfo(key, order);
+
+                            try {
+                                jiraTimesheetSynchronizer
+                                        .syncJiraTimesheetWithJiraIssues(
+                                                issueDTOs, order);
+                            } catch (ConnectorException e) {
+                                throw new RuntimeException(e.getMessage(), e);
+                            }
+                            return null;
+                        }
+                    });
+        } catch (SynchronizationFailedException e) {
+            // the reasons are already in synchronizationInfo
+        }
+    }
+
+    /**
+     * Thrown to roll back the transaction of an order whose synchronization
+     * has failed
+     */
+    private static class SynchronizationFailedException extends
+            RuntimeException {
+    }
+
+    private void logThroughput(int total, int failed, long startTime) {
+        long elapsed = Math.max(1, System.currentTimeMillis() - startTime);
+        LOG.info("JIRA synchronization: " + total + " orders in " + elapsed
+                + " ms (" + (total * 1000L / elapsed) + " orders/s), "
+                + failed + " failed");
+    }
 }
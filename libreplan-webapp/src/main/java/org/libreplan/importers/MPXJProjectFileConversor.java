@@ -73,11 +73,15 @@ public class MPXJProjectFileConversor {
      * for each format. At this time it only differences between planner and
      * project.
      *
+     * It is synchronized as the conversion keeps its state in static fields,
+     * so two files imported at the same time would mix their tasks.
+     *
      * @param file
      *            ProjectFile to extract data from.
      * @return ImportData with the data that we want to import.
      */
-    public static OrderDTO convert(ProjectFile file, String filename) {
+    public static synchronized OrderDTO convert(ProjectFile file,
+            String filename) {
 
         OrderDTO importData;
 
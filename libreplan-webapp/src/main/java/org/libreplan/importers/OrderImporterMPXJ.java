@@ -24,7 +24,9 @@ import static org.libreplan.web.I18nHelper._;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.ConcurrentModificationException;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import net.sf.mpxj.reader.ProjectReader;
@@ -303,9 +305,12 @@ project.calendarName));
 
         List<TaskElement> taskElements = new ArrayList<TaskElement>();
 
+        Map<String, BaseCalendar> calendarsByName = new HashMap<String, BaseCalendar>();
+
         for (OrderElementDTO importTask : project.tasks) {
 
-            taskElements.add(createTask(importTask, importCalendar));
+            taskElements.add(createTask(importTask, importCalendar,
+                    calendarsByName));
 
         }
 
@@ -354,10 +359,14 @@ project.calendarName));
      *
      * @param task
      *            ImportTask to extract data from.
+     * @param calendarsByName
+     *            Calendars already found in the import, so they are not
+     *            searched again for every task.
      *
      * @return TaskElement TaskElement that represent the data.
      */
-    private TaskElement createTask(OrderElementDTO task, boolean importCalendar) {
+    private TaskElement createTask(OrderElementDTO task,
+            boolean importCalendar, Map<String, BaseCalendar> calendarsByName) {
 
         OrderElement orderElement = task.orderElement;
 
@@ -375,7 +384,8 @@ project.calendarName));
                     .createTaskWithoutDatesInitializedAndLinkItToTaskSource();
 
             if (importCalendar && task.calendarName != null) {
-                taskElement.setCalendar(findBaseCalendar(task.calendarName));
+                taskElement.setCalendar(findBaseCalendar(task.calendarName,
+                        calendarsByName));
             }
 
             setPositionConstraint((Task) taskElement, task);
@@ -392,7 +402,8 @@ project.calendarName));
 
             for (OrderElementDTO importTask : task.children) {
 
-                taskElements.add(createTask(importTask, importCalendar));
+                taskElements.add(createTask(importTask, importCalendar,
+                        calendarsByName));
 
             }
 
@@ -659,4 +670,14 @@ project.calendarName));
 
         throw new ValidationException(_("Linked calendar not found"));
     }
+
+    private BaseCalendar findBaseCalendar(String name,
+            Map<String, BaseCalendar> calendarsByName) {
+        BaseCalendar result = calendarsByName.get(name);
+        if (result == null) {
+            result = findBaseCalendar(name);
+            calendarsByName.put(name, result);
+        }
+        return result;
+    }
 }
@@ -25,41 +25,65 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Timer;
+import java.util.TimerTask;
 
+import javax.servlet.ServletContext;
 import javax.servlet.ServletContextEvent;
 import javax.servlet.ServletContextListener;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.libreplan.business.BootstrapOrder;
 import org.libreplan.business.IDataBootstrap;
 import org.libreplan.business.hibernate.notification.PredefinedDatabaseSnapshots;
 import org.springframework.aop.framework.Advised;
+import org.springframework.aop.support.AopUtils;
 import org.springframework.beans.factory.BeanFactoryUtils;
 import org.springframework.web.context.WebApplicationContext;
 import org.springframework.web.context.support.WebApplicationContextUtils;
 
 public class BootstrapListener implements ServletContextListener {
 
+    private static final Log LOG = LogFactory.getLog(BootstrapListener.class);
+
+    private static final String SNAPSHOTS_WARM_UP_DELAY = "snapshotsWarmUpDelay";
+
+    private static final int DEFAULT_SNAPSHOTS_WARM_UP_DELAY = 120;
+
+    private Timer warmUpTimer;
+
     @Override
     public void contextDestroyed(ServletContextEvent servletContextEvent) {
-
+        if (warmUpTimer != null) {
+            warmUpTimer.cancel();
+        }
     }
 
     @Override
     public void contextInitialized(ServletContextEvent servletContextEvent) {
+        long start = System.currentTimeMillis();
         WebApplicationContext webApplicationContext = WebApplicationContextUtils
                 .getWebApplicationContext(servletContextEvent
                         .getServletContext());
         doBootstrap(webApplicationContext);
         // some snapshots could depend on the bootstrap being done, so they are
         // launched after
-        launchSnapshots(webApplicationContext);
+        launchSnapshots(webApplicationContext,
+                getSnapshotsWarmUpDelay(servletContextEvent
+                        .getServletContext()));
+        LOG.info("bootstrap done in " + (System.currentTimeMillis() - start)
+                + " ms");
     }
 
     private void doBootstrap(WebApplicationContext webApplicationContext) {
         List<IDataBootstrap> bootstrapsFound = findBootstraps(webApplicationContext);
         Collections.sort(bootstrapsFound, byBootstrapOrder());
         for (IDataBootstrap each : bootstrapsFound) {
+            long start = System.currentTimeMillis();
             each.loadRequiredData();
+            LOG.info(AopUtils.getTargetClass(each).getSimpleName() + " took "
+                    + (System.currentTimeMillis() - start) + " ms");
         }
     }
 
@@ -110,9 +134,41 @@ public class BootstrapListener implements ServletContextListener {
         };
     }
 
-    private void launchSnapshots(WebApplicationContext webApplicationContext) {
-        PredefinedDatabaseSnapshots snapshots = getPredefinedDatabaseSnapshots(webApplicationContext);
+    /**
+     * The snapshots are loaded when used for the first time, the ones not
+     * used yet are loaded after <code>warmUpDelay</code> seconds, so they
+     * don't compete with the first requests
+     */
+    private void launchSnapshots(WebApplicationContext webApplicationContext,
+            int warmUpDelay) {
+        final PredefinedDatabaseSnapshots snapshots = getPredefinedDatabaseSnapshots(webApplicationContext);
         snapshots.registerSnapshots();
+        if (warmUpDelay <= 0) {
+            return;
+        }
+        warmUpTimer = new Timer("snapshots-warm-up", true);
+        warmUpTimer.schedule(new TimerTask() {
+
+            @Override
+            public void run() {
+                snapshots.warmUpSnapshots();
+            }
+        }, warmUpDelay * 1000L);
+    }
+
+    private int getSnapshotsWarmUpDelay(ServletContext servletContext) {
+        String value = servletContext
+                .getInitParameter(SNAPSHOTS_WARM_UP_DELAY);
+        if (value == null) {
+            return DEFAULT_SNAPSHOTS_WARM_UP_DELAY;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            LOG.warn("wrong value for " + SNAPSHOTS_WARM_UP_DELAY + ": "
+                    + value + ", using " + DEFAULT_SNAPSHOTS_WARM_UP_DELAY);
+            return DEFAULT_SNAPSHOTS_WARM_UP_DELAY;
+        }
     }
 
     private PredefinedDatabaseSnapshots getPredefinedDatabaseSnapshots(
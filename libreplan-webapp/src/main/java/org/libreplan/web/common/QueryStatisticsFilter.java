@@ -0,0 +1,98 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2014 Igalia, S.L.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.libreplan.web.common;
+
+import java.io.IOException;
+import java.util.Map.Entry;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.libreplan.business.hibernate.statistics.QueryStatistics;
+
+/**
+ * Records the {@link QueryStatistics} of each request, so both ZK events and
+ * web services calls are covered. They are logged at debug level and as a
+ * warning, together with the most repeated statements, when the request
+ * executes more statements than the <code>statementsWarningThreshold</code>
+ * init parameter.
+ */
+public class QueryStatisticsFilter implements Filter {
+
+    private static final Log LOG = LogFactory
+            .getLog(QueryStatisticsFilter.class);
+
+    private static final int DEFAULT_STATEMENTS_WARNING_THRESHOLD = 500;
+
+    private static final int REPEATED_STATEMENTS_SHOWN = 5;
+
+    private int statementsWarningThreshold = DEFAULT_STATEMENTS_WARNING_THRESHOLD;
+
+    @Override
+    public void init(FilterConfig filterConfig) throws ServletException {
+        String threshold = filterConfig
+                .getInitParameter("statementsWarningThreshold");
+        if (!StringUtils.isBlank(threshold)) {
+            statementsWarningThreshold = Integer.parseInt(threshold.trim());
+        }
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response,
+            FilterChain chain) throws IOException, ServletException {
+        QueryStatistics.start();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            QueryStatistics statistics = QueryStatistics.stop();
+            if (statistics != null) {
+                log(request, statistics);
+            }
+        }
+    }
+
+    private void log(ServletRequest request, QueryStatistics statistics) {
+        String uri = request instanceof HttpServletRequest ? ((HttpServletRequest) request)
+                .getRequestURI() : "";
+        if (statistics.getStatements() > statementsWarningThreshold) {
+            StringBuilder message = new StringBuilder(uri + ": " + statistics);
+            for (Entry<String, Integer> each : statistics
+                    .getMostRepeatedStatements(REPEATED_STATEMENTS_SHOWN)) {
+                message.append("\n    " + each.getValue() + " times: "
+                        + each.getKey());
+            }
+            LOG.warn(message);
+        } else if (LOG.isDebugEnabled()) {
+            LOG.debug(uri + ": " + statistics);
+        }
+    }
+
+    @Override
+    public void destroy() {
+    }
+
+}
@@ -85,11 +85,16 @@ public class DashboardModel implements IDashboardModel {
     private List<TaskElement> criticalPath;
     private Integer taskCount = null;
 
+    private Map<TaskStatusEnum, Integer> taskStatusCount;
     private final Map<TaskStatusEnum, BigDecimal> taskStatusStats;
     private final Map<TaskDeadlineViolationStatusEnum, BigDecimal> taskDeadlineViolationStatusStats;
     private BigDecimal marginWithDeadLine;
     private Integer absoluteMarginWithDeadLine;
 
+    /* Sums of the load lines, calculated when first needed */
+    private EffortDuration totalLoad;
+    private EffortDuration totalOverload;
+
     public DashboardModel() {
         taskStatusStats = new EnumMap<TaskStatusEnum, BigDecimal>(
                 TaskStatusEnum.class);
@@ -97,6 +102,11 @@ public class DashboardModel implements IDashboardModel {
                 TaskDeadlineViolationStatusEnum.class);
     }
 
+    DashboardModel(IOrderResourceLoadCalculator resourceLoadCalculator) {
+        this();
+        this.resourceLoadCalculator = resourceLoadCalculator;
+    }
+
     @Override
     public void setCurrentOrder(PlanningState planningState, List<TaskElement> criticalPath) {
         final Order order = planningState.getOrder();
@@ -106,6 +116,9 @@ public class DashboardModel implements IDashboardModel {
         this.currentOrder = order;
         this.criticalPath = criticalPath;
         this.taskCount = null;
+        this.taskStatusCount = null;
+        this.totalLoad = null;
+        this.totalOverload = null;
         if (tasksAvailable()) {
             this.calculateGlobalProgress();
             this.calculateTaskStatusStatistics();
@@ -448,8 +461,20 @@ public class DashboardModel implements IDashboardModel {
 
     }
 
+    /**
+     * The status of the tasks is already calculated when the order is set, so
+     * the whole graph doesn't have to be reset and traversed again. The
+     * returned map is shared between calls, so it can't be modified.
+     */
     @Override
     public Map<TaskStatusEnum, Integer> calculateTaskStatus() {
+        if (taskStatusCount == null) {
+            taskStatusCount = countTasksByStatus();
+        }
+        return Collections.unmodifiableMap(taskStatusCount);
+    }
+
+    private Map<TaskStatusEnum, Integer> countTasksByStatus() {
         AccumulateTasksStatusVisitor visitor = new AccumulateTasksStatusVisitor();
         TaskElement rootTask = getRootTask();
         if (this.getRootTask() == null) {
@@ -461,15 +486,8 @@ public class DashboardModel implements IDashboardModel {
     }
 
     private void calculateTaskStatusStatistics() {
-        AccumulateTasksStatusVisitor visitor = new AccumulateTasksStatusVisitor();
-        TaskElement rootTask = getRootTask();
-        if (this.getRootTask() == null) {
-            throw new RuntimeException("Root task is null");
-        }
-        resetTasksStatusInGraph();
-        rootTask.acceptVisitor(visitor);
-        Map<TaskStatusEnum, Integer> count = visitor.getTaskStatusData();
-        mapAbsoluteValuesToPercentages(count, taskStatusStats);
+        taskStatusCount = countTasksByStatus();
+        mapAbsoluteValuesToPercentages(taskStatusCount, taskStatusStats);
     }
 
     private void calculateTaskViolationStatusStatistics() {
@@ -533,11 +551,22 @@ public class DashboardModel implements IDashboardModel {
 
     @Override
     public BigDecimal getOvertimeRatio() {
-        EffortDuration totalLoad = sumAll(resourceLoadCalculator.getAllLoad());
-        EffortDuration overload = sumAll(resourceLoadCalculator
-                .getAllOverload());
-        return overload.dividedByAndResultAsBigDecimal(totalLoad).setScale(2,
-                RoundingMode.HALF_UP);
+        return getTotalOverload().dividedByAndResultAsBigDecimal(
+                getTotalLoad()).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private EffortDuration getTotalLoad() {
+        if (totalLoad == null) {
+            totalLoad = sumAll(resourceLoadCalculator.getAllLoad());
+        }
+        return totalLoad;
+    }
+
+    private EffortDuration getTotalOverload() {
+        if (totalOverload == null) {
+            totalOverload = sumAll(resourceLoadCalculator.getAllOverload());
+        }
+        return totalOverload;
     }
 
     private EffortDuration sumAll(
@@ -555,10 +584,7 @@ public class DashboardModel implements IDashboardModel {
 
     @Override
     public BigDecimal getAvailabilityRatio() {
-        EffortDuration totalLoad = sumAll(resourceLoadCalculator.getAllLoad());
-        EffortDuration overload = sumAll(resourceLoadCalculator
-                .getAllOverload());
-        EffortDuration load = totalLoad.minus(overload);
+        EffortDuration load = getTotalLoad().minus(getTotalOverload());
 
         EffortDuration capacity = sumAll(resourceLoadCalculator
                 .getMaxCapacityOnResources());
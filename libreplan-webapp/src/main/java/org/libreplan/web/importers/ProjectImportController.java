@@ -19,6 +19,8 @@ import org.libreplan.web.common.IMessagesForUser;
 import org.libreplan.web.common.Level;
 import org.libreplan.web.common.MessagesForUser;
 import org.springframework.transaction.annotation.Transactional;
+import org.zkoss.ganttz.util.LongOperationFeedback;
+import org.zkoss.ganttz.util.LongOperationFeedback.ILongOperation;
 import org.zkoss.util.media.Media;
 import org.zkoss.zk.ui.Component;
 import org.zkoss.zk.ui.util.GenericForwardComposer;
@@ -63,51 +65,72 @@ public class ProjectImportController extends GenericForwardComposer {
      * @param Media
      *            Media to be imported.
      */
-    public void importProject(Media media) {
+    public void importProject(final Media media) {
 
-        String file = media.getName();
+        final String file = media.getName();
 
-        if (checkFileFormat(file)) {
+        if (!checkFileFormat(file)) {
+            messages.showMessage(Level.ERROR,
+                    _("The only current suported formats are mpp and planner."));
+            return;
+        }
+
+        if (!importCalendars.isChecked() && !importTasks.isChecked()
+                && !importAll.isChecked()) {
+            messages.showMessage(Level.WARNING,
+                    _("Select one of the options."));
+            return;
+        }
 
-            if (importCalendars.isChecked()) {
+        LongOperationFeedback.execute(self, new ILongOperation() {
 
-                try {
-                    importCalendar(media.getStreamData(), file);
-                    messages.showMessage(Level.INFO, _(file
-                            + ": Calendar import successfully!"));
-                } catch (InstanceNotFoundException e) {
-                    messages.showMessage(Level.ERROR, _("Instance not found."));
-                } catch (ValidationException e) {
-                    messages.showMessage(Level.ERROR, e.getMessage());
-                }
+            @Override
+            public void doAction() {
+                doImport(media.getStreamData(), file,
+                        importCalendars.isChecked(), importTasks.isChecked());
+            }
+
+            @Override
+            public String getName() {
+                return _("importing {0}", file);
+            }
+        });
+    }
 
-            } else if (importTasks.isChecked()) {
+    private void doImport(InputStream streamData, String file,
+            boolean onlyCalendars, boolean onlyTasks) {
 
-                importProject(media.getStreamData(), file);
+        if (onlyCalendars) {
 
+            try {
+                importCalendar(streamData, file);
                 messages.showMessage(Level.INFO, _(file
-                        + ": Task import successfully!"));
-
-            } else if (importAll.isChecked()) {
-
-                try {
-                    importAll(media.getStreamData(), file);
-                    messages.showMessage(Level.INFO, _(file
-                            + ": Import successfully!"));
-                } catch (InstanceNotFoundException e) {
-                    messages.showMessage(Level.ERROR, _("Instance not found."));
-                } catch (ValidationException e) {
-                    messages.showMessage(Level.ERROR, e.getMessage());
-                }
-
-            } else {
-                messages.showMessage(Level.WARNING,
-                        _("Select one of the options."));
+                        + ": Calendar import successfully!"));
+            } catch (InstanceNotFoundException e) {
+                messages.showMessage(Level.ERROR, _("Instance not found."));
+            } catch (ValidationException e) {
+                messages.showMessage(Level.ERROR, e.getMessage());
             }
 
+        } else if (onlyTasks) {
+
+            importProject(streamData, file);
+
+            messages.showMessage(Level.INFO, _(file
+                    + ": Task import successfully!"));
+
         } else {
-            messages.showMessage(Level.ERROR,
-                    _("The only current suported formats are mpp and planner."));
+
+            try {
+                importAll(streamData, file);
+                messages.showMessage(Level.INFO, _(file
+                        + ": Import successfully!"));
+            } catch (InstanceNotFoundException e) {
+                messages.showMessage(Level.ERROR, _("Instance not found."));
+            } catch (ValidationException e) {
+                messages.showMessage(Level.ERROR, e.getMessage());
+            }
+
         }
 
     }
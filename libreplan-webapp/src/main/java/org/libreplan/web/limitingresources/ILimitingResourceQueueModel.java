@@ -58,6 +58,16 @@ import org.zkoss.ganttz.util.Interval;
  */
 public interface ILimitingResourceQueueModel {
 
+    /**
+     * Receives the progress of the assignment of several queue elements. It's
+     * called each time one of them has been assigned, with the elements
+     * inserted in the queues because of it.
+     */
+    public interface IAssignmentProgressListener {
+        public void assigned(List<LimitingResourceQueueElement> inserted,
+                int done, int total);
+    }
+
     List<LimitingResourceQueueElement> nonAppropriativeAllocation(
             LimitingResourceQueueElement element, LimitingResourceQueue queue, DateAndHour time);
 
@@ -146,6 +156,7 @@ public interface ILimitingResourceQueueModel {
             LimitingResourceQueueElement newElement);
 
     Set<LimitingResourceQueueElement> assignLimitingResourceQueueElements(
-            List<LimitingResourceQueueElement> elements);
+            List<LimitingResourceQueueElement> elements,
+            IAssignmentProgressListener progressListener);
 
 }
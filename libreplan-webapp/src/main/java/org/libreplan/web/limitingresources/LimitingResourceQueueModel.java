@@ -142,6 +142,13 @@ public class LimitingResourceQueueModel implements ILimitingResourceQueueModel {
     private Map<LimitingResourceQueueElement, HashSet<LimitingResourceQueueDependency>> toBeSavedDependencies =
         new HashMap<LimitingResourceQueueElement, HashSet<LimitingResourceQueueDependency>>();
 
+    public LimitingResourceQueueModel() {
+    }
+
+    LimitingResourceQueueModel(QueuesState queuesState) {
+        this.queuesState = queuesState;
+    }
+
     @Override
     @Transactional(readOnly = true)
     public void initGlobalView() {
@@ -1238,10 +1245,16 @@ public class LimitingResourceQueueModel implements ILimitingResourceQueueModel {
 
     @Override
     public Set<LimitingResourceQueueElement> assignLimitingResourceQueueElements(
-            List<LimitingResourceQueueElement> queueElements) {
+            List<LimitingResourceQueueElement> queueElements,
+            IAssignmentProgressListener progressListener) {
+        Validate.notNull(progressListener);
         Set<LimitingResourceQueueElement> result = new HashSet<LimitingResourceQueueElement>();
-        for (LimitingResourceQueueElement each: queuesState.inTopologicalOrder(queueElements)) {
-            result.addAll(assignLimitingResourceQueueElement(each));
+        int done = 0;
+        for (LimitingResourceQueueElement each : queuesState
+                .inTopologicalOrderByLatestStart(queueElements)) {
+            List<LimitingResourceQueueElement> inserted = assignLimitingResourceQueueElement(each);
+            result.addAll(inserted);
+            progressListener.assigned(inserted, ++done, queueElements.size());
         }
         return result;
     }
@@ -22,6 +22,7 @@
 package org.libreplan.web.limitingresources;
 
 import static org.libreplan.web.I18nHelper._;
+import static org.zkoss.ganttz.util.LongOperationFeedback.and;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -47,6 +48,7 @@ import org.libreplan.business.resources.entities.Criterion;
 import org.libreplan.business.resources.entities.LimitingResourceQueue;
 import org.libreplan.business.resources.entities.Resource;
 import org.libreplan.web.common.Util;
+import org.libreplan.web.limitingresources.ILimitingResourceQueueModel.IAssignmentProgressListener;
 import org.libreplan.web.limitingresources.LimitingResourcesPanel.IToolbarCommand;
 import org.libreplan.web.planner.order.BankHolidaysMarker;
 import org.libreplan.web.planner.taskedition.EditTaskController;
@@ -57,10 +59,15 @@ import org.springframework.stereotype.Component;
 import org.zkoss.ganttz.timetracker.TimeTracker;
 import org.zkoss.ganttz.timetracker.zoom.SeveralModificators;
 import org.zkoss.ganttz.timetracker.zoom.ZoomLevel;
+import org.zkoss.ganttz.util.LongOperationFeedback;
+import org.zkoss.ganttz.util.LongOperationFeedback.IBackGroundOperation;
+import org.zkoss.ganttz.util.LongOperationFeedback.IDesktopUpdate;
+import org.zkoss.ganttz.util.LongOperationFeedback.IDesktopUpdatesEmitter;
 import org.zkoss.zk.ui.SuspendNotAllowedException;
 import org.zkoss.zk.ui.event.Event;
 import org.zkoss.zk.ui.event.EventListener;
 import org.zkoss.zk.ui.event.Events;
+import org.zkoss.zk.ui.util.Clients;
 import org.zkoss.zk.ui.util.GenericForwardComposer;
 import org.zkoss.zul.Button;
 import org.zkoss.zul.Checkbox;
@@ -587,20 +594,182 @@ public class LimitingResourcesController extends GenericForwardComposer {
     }
 
     public void assignAllSelectedElements() {
-        List<LimitingResourceQueueElement> elements = getAllSelectedQueueElements();
+        final List<LimitingResourceQueueElement> elements = getAllSelectedQueueElements();
         if (!elements.isEmpty()) {
-            Set<LimitingResourceQueueElement> inserted = limitingResourceQueueModel
-                    .assignLimitingResourceQueueElements(elements);
-            clearSelectAllCheckbox();
+            LongOperationFeedback.progressive(
+                    gridUnassignedLimitingResourceQueueElements.getDesktop(),
+                    assignAll(elements));
+        }
+    }
 
-            if (inserted.isEmpty()) {
-                showErrorMessage(_("Cannot allocate selected element. There is not any queue "
-                        + "that matches resource allocation criteria at any interval of time"));
-                return;
+    /**
+     * The elements are assigned outside of the request thread, so the
+     * progress can be shown. The queues are only refreshed on the desktop once
+     * all of them have been assigned, or the assignment has failed. Meanwhile
+     * the busy message is modal, so the queues can't be modified from the
+     * request thread.
+     */
+    private IBackGroundOperation<IDesktopUpdate> assignAll(
+            final List<LimitingResourceQueueElement> elements) {
+        return new IBackGroundOperation<IDesktopUpdate>() {
+
+            @Override
+            public void doOperation(
+                    IDesktopUpdatesEmitter<IDesktopUpdate> updater) {
+                updater.doUpdate(showProgress(0));
+                AssignmentProgress progress = progressSentTo(updater);
+                Set<LimitingResourceQueueElement> inserted = null;
+                try {
+                    inserted = limitingResourceQueueModel
+                            .assignLimitingResourceQueueElements(elements,
+                                    progress);
+                } finally {
+                    if (inserted != null) {
+                        // null if error
+                        updater.doUpdate(and(busyEnd(),
+                                showAssigned(inserted)));
+                    } else {
+                        updater.doUpdate(and(busyEnd(),
+                                showAssignedBeforeFailure(progress
+                                        .getInserted()),
+                                tellUserOnFailure()));
+                    }
+                }
             }
-            limitingResourcesPanel.refreshQueues(LimitingResourceQueue.queuesOf(inserted));
-            reloadUnassignedLimitingResourceQueueElements();
+        };
+    }
+
+    /**
+     * Keeps the elements inserted so far, so their queues can be refreshed
+     * even if the assignment fails. The progress is only notified when the
+     * percentage changes, otherwise the desktop would be flooded with updates
+     * when many elements are assigned.
+     */
+    static abstract class AssignmentProgress implements
+            IAssignmentProgressListener {
+
+        private final Set<LimitingResourceQueueElement> inserted = new HashSet<LimitingResourceQueueElement>();
+
+        private int lastPercentage = 0;
+
+        @Override
+        public void assigned(List<LimitingResourceQueueElement> inserted,
+                int done, int total) {
+            this.inserted.addAll(inserted);
+            int percentage = done * 100 / total;
+            if (percentage > lastPercentage) {
+                lastPercentage = percentage;
+                progressChanged(percentage);
+            }
+        }
+
+        Set<LimitingResourceQueueElement> getInserted() {
+            return new HashSet<LimitingResourceQueueElement>(inserted);
         }
+
+        protected abstract void progressChanged(int percentage);
+
+    }
+
+    private AssignmentProgress progressSentTo(
+            final IDesktopUpdatesEmitter<IDesktopUpdate> updater) {
+        return new AssignmentProgress() {
+
+            @Override
+            protected void progressChanged(int percentage) {
+                updater.doUpdate(showProgress(percentage));
+            }
+        };
+    }
+
+    private IDesktopUpdate showProgress(final int percentage) {
+        return new IDesktopUpdate() {
+
+            @Override
+            public void doUpdate() {
+                Clients.showBusy(
+                        _("Assigning queue elements: {0}%", percentage), true);
+            }
+        };
+    }
+
+    private IDesktopUpdate busyEnd() {
+        return new IDesktopUpdate() {
+
+            @Override
+            public void doUpdate() {
+                Clients.showBusy(null, false);
+            }
+        };
+    }
+
+    private IDesktopUpdate showAssigned(
+            final Set<LimitingResourceQueueElement> inserted) {
+        return new IDesktopUpdate() {
+
+            @Override
+            public void doUpdate() {
+                refreshAssigned(inserted);
+            }
+        };
+    }
+
+    private IDesktopUpdate showAssignedBeforeFailure(
+            final Set<LimitingResourceQueueElement> inserted) {
+        return new IDesktopUpdate() {
+
+            @Override
+            public void doUpdate() {
+                clearSelectAllCheckbox();
+                if (!inserted.isEmpty()) {
+                    limitingResourcesPanel.refreshQueues(LimitingResourceQueue
+                            .queuesOf(inserted));
+                }
+                reloadUnassignedLimitingResourceQueueElements();
+            }
+        };
+    }
+
+    private IDesktopUpdate tellUserOnFailure() {
+        return new IDesktopUpdate() {
+
+            @Override
+            public void doUpdate() {
+                final org.zkoss.zk.ui.Component relativeTo = gridUnassignedLimitingResourceQueueElements;
+                final String eventName = "onLater";
+
+                Events.echoEvent(eventName, relativeTo, null);
+
+                relativeTo.addEventListener(eventName, new EventListener() {
+
+                    @Override
+                    public void onEvent(Event event) {
+                        relativeTo.removeEventListener(eventName, this);
+                        try {
+                            // built here, so the locale of the user is used
+                            Messagebox.show(
+                                    _("Assignment of the selected items could not be completed"),
+                                    _("Assign selected items"), Messagebox.OK,
+                                    Messagebox.EXCLAMATION);
+                        } catch (InterruptedException e) {
+                            throw new RuntimeException(e);
+                        }
+                    }
+                });
+            }
+        };
+    }
+
+    private void refreshAssigned(Set<LimitingResourceQueueElement> inserted) {
+        clearSelectAllCheckbox();
+
+        if (inserted.isEmpty()) {
+            showErrorMessage(_("Cannot allocate selected element. There is not any queue "
+                    + "that matches resource allocation criteria at any interval of time"));
+            return;
+        }
+        limitingResourcesPanel.refreshQueues(LimitingResourceQueue.queuesOf(inserted));
+        reloadUnassignedLimitingResourceQueueElements();
     }
 
     private void clearSelectAllCheckbox() {
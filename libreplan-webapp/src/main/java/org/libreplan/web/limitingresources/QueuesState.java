@@ -25,10 +25,12 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.PriorityQueue;
 import java.util.Set;
 
 import org.apache.commons.lang.Validate;
@@ -39,6 +41,8 @@ import org.jgrapht.alg.CycleDetector;
 import org.jgrapht.graph.DirectedMultigraph;
 import org.jgrapht.graph.SimpleDirectedGraph;
 import org.jgrapht.traverse.TopologicalOrderIterator;
+import org.joda.time.Days;
+import org.joda.time.LocalDate;
 import org.libreplan.business.common.BaseEntity;
 import org.libreplan.business.planner.entities.GenericResourceAllocation;
 import org.libreplan.business.planner.entities.ResourceAllocation;
@@ -605,6 +609,181 @@ public class QueuesState {
         return toList(topologicalIterator(buildSubgraphFor(queueElements)));
     }
 
+    /**
+     * Like {@link #inTopologicalOrder(List)}, but when several elements have
+     * all their predecessors already ordered the one with the earliest latest
+     * start, i.e. the one with less slack before a deadline, goes first. So
+     * when many elements are scheduled at once the most urgent ones get the
+     * earliest gaps. The latest starts take into account the deadlines of the
+     * successors too, not only the element's own deadline.
+     *
+     * @param queueElements
+     * @return
+     */
+    public List<LimitingResourceQueueElement> inTopologicalOrderByLatestStart(
+            List<LimitingResourceQueueElement> queueElements) {
+        DirectedGraph<LimitingResourceQueueElement, LimitingResourceQueueDependency> subGraph = buildSubgraphFor(queueElements);
+        Map<LimitingResourceQueueElement, Integer> pendingPredecessors = new HashMap<LimitingResourceQueueElement, Integer>();
+        PriorityQueue<LimitingResourceQueueElement> ready = new PriorityQueue<LimitingResourceQueueElement>(
+                Math.max(1, queueElements.size()),
+                byLatestStart(latestStarts(subGraph)));
+        for (LimitingResourceQueueElement each : subGraph.vertexSet()) {
+            int predecessors = subGraph.inDegreeOf(each);
+            if (predecessors == 0) {
+                ready.add(each);
+            } else {
+                pendingPredecessors.put(each, predecessors);
+            }
+        }
+        List<LimitingResourceQueueElement> result = new ArrayList<LimitingResourceQueueElement>();
+        while (!ready.isEmpty()) {
+            LimitingResourceQueueElement current = ready.poll();
+            result.add(current);
+            for (LimitingResourceQueueDependency each : subGraph
+                    .outgoingEdgesOf(current)) {
+                LimitingResourceQueueElement destiny = subGraph
+                        .getEdgeTarget(each);
+                int predecessors = pendingPredecessors.get(destiny) - 1;
+                if (predecessors == 0) {
+                    pendingPredecessors.remove(destiny);
+                    ready.add(destiny);
+                } else {
+                    pendingPredecessors.put(destiny, predecessors);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Calculates the latest start of each element so neither its deadline nor
+     * the deadlines of its successors are violated. The graph is traversed
+     * backwards, from the elements without successors. The durations used are
+     * the ones the tasks have in the Gantt. Elements with no deadline
+     * reachable are mapped to <code>null</code>.
+     */
+    private static Map<LimitingResourceQueueElement, LocalDate> latestStarts(
+            DirectedGraph<LimitingResourceQueueElement, LimitingResourceQueueDependency> subGraph) {
+        Map<LimitingResourceQueueElement, LocalDate> result = new HashMap<LimitingResourceQueueElement, LocalDate>();
+        Map<LimitingResourceQueueElement, Integer> pendingSuccessors = new HashMap<LimitingResourceQueueElement, Integer>();
+        List<LimitingResourceQueueElement> ready = new ArrayList<LimitingResourceQueueElement>();
+        for (LimitingResourceQueueElement each : subGraph.vertexSet()) {
+            int successors = subGraph.outDegreeOf(each);
+            if (successors == 0) {
+                ready.add(each);
+            } else {
+                pendingSuccessors.put(each, successors);
+            }
+        }
+        while (!ready.isEmpty()) {
+            LimitingResourceQueueElement current = ready
+                    .remove(ready.size() - 1);
+            int duration = durationInDays(current);
+            LocalDate latestEnd = current.getTask().getDeadline();
+            for (LimitingResourceQueueDependency each : subGraph
+                    .outgoingEdgesOf(current)) {
+                LimitingResourceQueueElement destiny = subGraph
+                        .getEdgeTarget(each);
+                latestEnd = earliest(latestEnd,
+                        latestEndAllowedBy(each.getType(), duration, destiny,
+                                result.get(destiny)));
+            }
+            result.put(current,
+                    latestEnd != null ? latestEnd.minusDays(duration) : null);
+            for (LimitingResourceQueueDependency each : subGraph
+                    .incomingEdgesOf(current)) {
+                LimitingResourceQueueElement origin = subGraph
+                        .getEdgeSource(each);
+                int successors = pendingSuccessors.get(origin) - 1;
+                if (successors == 0) {
+                    pendingSuccessors.remove(origin);
+                    ready.add(origin);
+                } else {
+                    pendingSuccessors.put(origin, successors);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static LocalDate latestEndAllowedBy(QueueDependencyType type,
+            int originDuration, LimitingResourceQueueElement destiny,
+            LocalDate destinyLatestStart) {
+        if (destinyLatestStart == null) {
+            return null;
+        }
+        switch (type) {
+        case END_START:
+            return destinyLatestStart;
+        case START_START:
+            return destinyLatestStart.plusDays(originDuration);
+        case END_END:
+            return destinyLatestStart.plusDays(durationInDays(destiny));
+        case START_END:
+            return destinyLatestStart.plusDays(durationInDays(destiny)
+                    + originDuration);
+        default:
+            throw new RuntimeException("unexpected type: " + type);
+        }
+    }
+
+    private static int durationInDays(LimitingResourceQueueElement element) {
+        LocalDate start = element.getTask().getStartAsLocalDate();
+        LocalDate end = element.getTask().getEndAsLocalDate();
+        if (start == null || end == null) {
+            return 0;
+        }
+        return Days.daysBetween(start, end).getDays();
+    }
+
+    private static LocalDate earliest(LocalDate a, LocalDate b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        return a.isBefore(b) ? a : b;
+    }
+
+    /**
+     * Elements with earlier latest starts go first and the ones without
+     * deadline go last. Ties are broken by the earliest start date because of
+     * the Gantt, with the elements without it last too.
+     */
+    private static Comparator<LimitingResourceQueueElement> byLatestStart(
+            final Map<LimitingResourceQueueElement, LocalDate> latestStarts) {
+        return new Comparator<LimitingResourceQueueElement>() {
+
+            @Override
+            public int compare(LimitingResourceQueueElement o1,
+                    LimitingResourceQueueElement o2) {
+                int result = compareWithNullsLast(latestStarts.get(o1),
+                        latestStarts.get(o2));
+                if (result != 0) {
+                    return result;
+                }
+                return compareWithNullsLast(
+                        o1.getEarliestStartDateBecauseOfGantt(),
+                        o2.getEarliestStartDateBecauseOfGantt());
+            }
+        };
+    }
+
+    private static <T extends Comparable<? super T>> int compareWithNullsLast(
+            T a, T b) {
+        if (a == null && b == null) {
+            return 0;
+        }
+        if (a == null) {
+            return 1;
+        }
+        if (b == null) {
+            return -1;
+        }
+        return a.compareTo(b);
+    }
+
     /**
      * Constructs a graph composed only by queueElements
      *
@@ -614,6 +793,8 @@ public class QueuesState {
     private DirectedGraph<LimitingResourceQueueElement, LimitingResourceQueueDependency> buildSubgraphFor(
             List<LimitingResourceQueueElement> queueElements) {
         SimpleDirectedGraph<LimitingResourceQueueElement, LimitingResourceQueueDependency> result = instantiateDirectedGraph();
+        Set<LimitingResourceQueueElement> elements = new HashSet<LimitingResourceQueueElement>(
+                queueElements);
 
         // Iterate through elements and construct graph
         for (LimitingResourceQueueElement each : queueElements) {
@@ -622,7 +803,7 @@ public class QueuesState {
                     .getDependenciesAsOrigin()) {
                 LimitingResourceQueueElement destiny = dependency
                         .getHasAsDestiny();
-                if (queueElements.contains(destiny)) {
+                if (elements.contains(destiny)) {
                     // Add source, destiny and edge between them
                     addDependency(result, dependency);
                 }
@@ -239,13 +239,18 @@ public class OrderModel extends IntegrationEntityModel implements IOrderModel {
         return orders;
     }
 
+    /**
+     * Only the data shown in the list, which is stored in the order itself
+     * or batch fetched, is loaded here. The orders have just been loaded in
+     * this session, so they don't need to be reattached. The progress is
+     * not calculated, as it traverses the whole tree of each order, it's
+     * only calculated for the tooltip of the rows being rendered.
+     */
     private void initializeOrders(List<Order> list) {
         for (Order order : list) {
-            orderDAO.reattachUnmodifiedEntity(order);
             if (order.getCustomer() != null) {
                 order.getCustomer().getName();
             }
-            order.getAdvancePercentage();
             for (Label label : order.getLabels()) {
                 label.getName();
             }
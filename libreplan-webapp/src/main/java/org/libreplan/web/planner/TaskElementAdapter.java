@@ -68,6 +68,7 @@ import org.libreplan.business.planner.entities.GenericResourceAllocation;
 import org.libreplan.business.planner.entities.IMoneyCostCalculator;
 import org.libreplan.business.planner.entities.ITaskPositionConstrained;
 import org.libreplan.business.planner.entities.MoneyCostCalculator;
+import org.libreplan.business.planner.entities.MoneyCostCalculator.MoneyCost;
 import org.libreplan.business.planner.entities.PositionConstraintType;
 import org.libreplan.business.planner.entities.ResourceAllocation;
 import org.libreplan.business.planner.entities.ResourceAllocation.Direction;
@@ -628,6 +629,10 @@ public class TaskElementAdapter {
                         || (taskElement.getOrderElement() == null)) {
                     return BigDecimal.ZERO;
                 }
+                if (planningState != null
+                        && !planningState.isAutomaticBudgetEnabled()) {
+                    return taskElement.getOrderElement().getBudget();
+                }
                 return transactionService
                         .runOnReadOnlyTransaction(new IOnTransaction<BigDecimal>() {
 
@@ -644,42 +649,48 @@ public class TaskElementAdapter {
                         || (taskElement.getOrderElement() == null)) {
                     return BigDecimal.ZERO;
                 }
-                return transactionService
-                        .runOnReadOnlyTransaction(new IOnTransaction<BigDecimal>() {
-
-                            @Override
-                            public BigDecimal execute() {
-                                return moneyCostCalculator.getTotalMoneyCost(taskElement
-                                        .getOrderElement());
-                            }
-                        });
+                return getCalculatedMoneyCost().getTotal();
             }
 
             private BigDecimal getHoursMoneyCost() {
                 if ((taskElement == null) || (taskElement.getOrderElement() == null)) {
                     return BigDecimal.ZERO;
                 }
-
-                return transactionService
-                        .runOnReadOnlyTransaction(new IOnTransaction<BigDecimal>() {
-                            @Override
-                            public BigDecimal execute() {
-                                return moneyCostCalculator.getHoursMoneyCost(taskElement.getOrderElement());
-                            }
-                        });
+                return getCalculatedMoneyCost().getCostOfHours();
             }
 
             private BigDecimal getExpensesMoneyCost() {
                 if ((taskElement == null) || (taskElement.getOrderElement() == null)) {
                     return BigDecimal.ZERO;
                 }
+                return getCalculatedMoneyCost().getCostOfExpenses();
+            }
 
+            /**
+             * The money cost of the tasks is usually calculated when the
+             * planning is loaded, so a transaction is only opened if it is not
+             * in the cache of {@link IMoneyCostCalculator}. The cached value
+             * is read at once, as the cache is shared with other users and it
+             * could be reseted meanwhile.
+             */
+            private MoneyCost getCalculatedMoneyCost() {
+                final OrderElement orderElement = taskElement
+                        .getOrderElement();
+                MoneyCost result = moneyCostCalculator
+                        .getCalculatedMoneyCost(orderElement);
+                if (result != null) {
+                    return result;
+                }
                 return transactionService
-                        .runOnReadOnlyTransaction(new IOnTransaction<BigDecimal>() {
+                        .runOnReadOnlyTransaction(new IOnTransaction<MoneyCost>() {
+
                             @Override
-                            public BigDecimal execute() {
-                                return moneyCostCalculator.getExpensesMoneyCost(taskElement
-                                        .getOrderElement());
+                            public MoneyCost execute() {
+                                return MoneyCost.create(
+                                        moneyCostCalculator
+                                                .getHoursMoneyCost(orderElement),
+                                        moneyCostCalculator
+                                                .getExpensesMoneyCost(orderElement));
                             }
                         });
             }
@@ -709,6 +720,10 @@ public class TaskElementAdapter {
             }
 
             private ProgressType getProgressTypeFromConfiguration() {
+                if (planningState != null
+                        && planningState.getProgressTypeFromConfiguration() != null) {
+                    return planningState.getProgressTypeFromConfiguration();
+                }
                 return transactionService
                         .runOnReadOnlyTransaction(new IOnTransaction<ProgressType>() {
                             @Override
@@ -729,6 +744,9 @@ public class TaskElementAdapter {
                         || taskElement.getOrderElement() == null) {
                     return "";
                 }
+                if (isLoadedWithPlanning()) {
+                    return buildTooltipText();
+                }
                 return transactionService
                         .runOnReadOnlyTransaction(new IOnTransaction<String>() {
 
@@ -747,6 +765,9 @@ public class TaskElementAdapter {
                         || taskElement.getOrderElement() == null) {
                     return "";
                 }
+                if (isLoadedWithPlanning()) {
+                    return buildLabelsText();
+                }
                 return transactionService
                         .runOnReadOnlyTransaction(new IOnTransaction<String>() {
 
@@ -765,6 +786,9 @@ public class TaskElementAdapter {
                         || taskElement.getOrderElement() == null) {
                     return "";
                 }
+                if (isLoadedWithPlanning()) {
+                    return buildResourcesText();
+                }
                 try {
                     return transactionService
                             .runOnAnotherReadOnlyTransaction(new IOnTransaction<String>() {
@@ -777,6 +801,7 @@ public class TaskElementAdapter {
                                     externalCompanyDAO.reattach(taskElement
                                                 .getSubcontractedCompany());
                                     }
+                                    reattachGenericAllocations();
                                     return buildResourcesText();
                                 }
                             });
@@ -786,6 +811,29 @@ public class TaskElementAdapter {
                 }
             }
 
+            /**
+             * The data shown in the texts of the tasks loaded along with the
+             * planning is already initialized, so they are built without
+             * reattaching it in a transaction
+             */
+            private boolean isLoadedWithPlanning() {
+                return planningState != null
+                        && planningState.isLoadedWithPlanning(taskElement);
+            }
+
+            private void reattachGenericAllocations() {
+                for (GenericResourceAllocation each : ResourceAllocation
+                        .getOfType(GenericResourceAllocation.class,
+                                taskElement.getSatisfiedResourceAllocations())) {
+                    if (!each.isNewObject()) {
+                        resourceAllocationDAO.reattach(each);
+                    }
+                    for (Criterion criterion : each.getCriterions()) {
+                        criterionDAO.reattachUnmodifiedEntity(criterion);
+                    }
+                }
+            }
+
             private Set<Label> getLabelsFromElementAndPredecesors(
                     OrderElement order) {
                 if (order != null) {
@@ -848,14 +896,10 @@ public class TaskElementAdapter {
 
             private String extractRepresentationForGeneric(
                     GenericResourceAllocation generic) {
-                if (!generic.isNewObject()) {
-                    resourceAllocationDAO.reattach(generic);
-                }
                 Set<Criterion> criterions = generic.getCriterions();
                 List<String> forCriterionRepresentations = new ArrayList<String>();
                 if (!criterions.isEmpty()) {
                     for (Criterion c : criterions) {
-                        criterionDAO.reattachUnmodifiedEntity(c);
                         forCriterionRepresentations.add(c.getName());
                     }
                 } else {
@@ -53,7 +53,7 @@ import org.libreplan.business.orders.daos.IOrderDAO;
 import org.libreplan.business.orders.entities.Order;
 import org.libreplan.business.orders.entities.OrderStatusEnum;
 import org.libreplan.business.planner.chart.ILoadChartData;
-import org.libreplan.business.planner.chart.ResourceLoadChartData;
+import org.libreplan.business.planner.chart.ResourceLoadChartDataByMonth;
 import org.libreplan.business.planner.entities.ICompanyEarnedValueCalculator;
 import org.libreplan.business.planner.entities.TaskElement;
 import org.libreplan.business.planner.entities.TaskGroup;
@@ -880,7 +880,7 @@ public class CompanyPlanningModel implements ICompanyPlanningModel {
 
         @Override
         protected ILoadChartData getDataOn(Interval interval) {
-            ResourceLoadChartData data = databaseSnapshots
+            ResourceLoadChartDataByMonth data = databaseSnapshots
                     .snapshotResourceLoadChartData();
             return data.on(getStart(filterStartDate, interval),
                     getEnd(filterFinishDate, interval));
@@ -93,6 +93,7 @@ import org.libreplan.web.planner.order.ISaveCommand.IAfterSaveListener;
 import org.libreplan.web.planner.order.PlanningStateCreator.IActionsOnRetrieval;
 import org.libreplan.web.planner.order.PlanningStateCreator.PlanningState;
 import org.libreplan.web.planner.reassign.IReassignCommand;
+import org.libreplan.web.planner.reschedule.IRescheduleCommand;
 import org.libreplan.web.planner.taskedition.AdvancedAllocationTaskController;
 import org.libreplan.web.planner.taskedition.EditTaskController;
 import org.libreplan.web.planner.taskedition.ITaskPropertiesCommand;
@@ -221,6 +222,9 @@ public class OrderPlanningModel implements IOrderPlanningModel {
     @Autowired
     private IAdaptPlanningCommand adaptPlanningCommand;
 
+    @Autowired
+    private IRescheduleCommand rescheduleCommand;
+
     @Autowired
     private IResourceAllocationCommand resourceAllocationCommand;
 
@@ -330,6 +334,7 @@ public class OrderPlanningModel implements IOrderPlanningModel {
         configuration.addGlobalCommand(buildReassigningCommand());
         configuration.addGlobalCommand(buildCancelEditionCommand());
         configuration.addGlobalCommand(buildAdaptPlanningCommand());
+        configuration.addGlobalCommand(rescheduleCommand);
 
         NullSeparatorCommandOnTask<TaskElement> separator = new NullSeparatorCommandOnTask<TaskElement>();
 
@@ -37,8 +37,11 @@ import org.libreplan.business.advance.entities.IndirectAdvanceAssignment;
 import org.libreplan.business.calendars.entities.BaseCalendar;
 import org.libreplan.business.common.IAdHocTransactionService;
 import org.libreplan.business.common.IOnTransaction;
+import org.libreplan.business.common.daos.IConfigurationDAO;
 import org.libreplan.business.common.daos.IEntitySequenceDAO;
+import org.libreplan.business.common.entities.Configuration;
 import org.libreplan.business.common.entities.EntityNameEnum;
+import org.libreplan.business.common.entities.ProgressType;
 import org.libreplan.business.labels.entities.Label;
 import org.libreplan.business.orders.daos.IOrderDAO;
 import org.libreplan.business.orders.entities.HoursGroup;
@@ -180,6 +183,9 @@ public class PlanningStateCreator {
     @Autowired
     private IMoneyCostCalculator moneyCostCalculator;
 
+    @Autowired
+    private IConfigurationDAO configurationDAO;
+
     void synchronizeWithSchedule(Order order, IOptionalPersistence persistence) {
         List<TaskSourceSynchronization> synchronizationsNeeded = order
                 .calculateSynchronizationsNeeded();
@@ -293,6 +299,12 @@ public class PlanningStateCreator {
         forceLoadOfWorkingHours(result.getInitial());
 
         moneyCostCalculator.resetMoneyCostMap();
+        // Calculated now, so the Gantt does not need a transaction per task
+        // to show the money cost
+        moneyCostCalculator.calculateMoneyCostOfTree(orderReloaded);
+        // The data shown in the texts of the Gantt tasks has been loaded too
+        result.setLoadedWithPlanning(rootTask,
+                configurationDAO.getConfiguration());
 
         return result;
     }
@@ -415,6 +427,11 @@ public class PlanningStateCreator {
                         .getRequiredDeliveringDates()) {
                     subDeliverDate.getSaveDate();
                 }
+                if (((Task) taskElement).getSubcontractedTaskData()
+                        .getExternalCompany() != null) {
+                    ((Task) taskElement).getSubcontractedTaskData()
+                            .getExternalCompany().getName();
+                }
             }
         }
     }
@@ -727,6 +744,12 @@ public class PlanningStateCreator {
 
         private OrderStatusEnum savedOrderState;
 
+        private Set<TaskElement> loadedWithPlanning = new HashSet<TaskElement>();
+
+        private ProgressType progressTypeFromConfiguration;
+
+        private boolean automaticBudgetEnabled;
+
         public PlanningState(Order order,
                 Collection<? extends Resource> initialResources,
                 Scenario currentScenario) {
@@ -859,6 +882,46 @@ public class PlanningStateCreator {
             return new ArrayList<TaskElement>(initial);
         }
 
+        private void setLoadedWithPlanning(TaskElement rootTask,
+                Configuration configuration) {
+            this.progressTypeFromConfiguration = configuration
+                    .getProgressType();
+            this.automaticBudgetEnabled = configuration
+                    .isEnabledAutomaticBudget()
+                    && configuration.getBudgetDefaultTypeOfWorkHours() != null;
+            if (rootTask != null) {
+                loadedWithPlanning.add(rootTask);
+                loadedWithPlanning.addAll(rootTask.getAllChildren());
+            }
+        }
+
+        /**
+         * Returns if the data of <code>taskElement</code> shown in the Gantt
+         * was loaded along with this planning, so it can be accessed without
+         * reattaching it in a transaction. Tasks created afterwards are not
+         */
+        public boolean isLoadedWithPlanning(TaskElement taskElement) {
+            return loadedWithPlanning.contains(taskElement);
+        }
+
+        /**
+         * The progress type of the configuration when this planning was
+         * loaded
+         */
+        public ProgressType getProgressTypeFromConfiguration() {
+            return progressTypeFromConfiguration;
+        }
+
+        /**
+         * If the automatic budget was not enabled in the configuration when
+         * this planning was loaded, the budget calculated from criteria and
+         * cost categories is zero and the total budget of an
+         * {@link OrderElement} is just its own budget
+         */
+        public boolean isAutomaticBudgetEnabled() {
+            return automaticBudgetEnabled;
+        }
+
         public List<Task> getAllTasks() {
             List<Task> result = new ArrayList<Task>();
             if (getRootTask() != null) {
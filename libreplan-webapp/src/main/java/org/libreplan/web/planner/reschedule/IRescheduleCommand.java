@@ -0,0 +1,31 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2014 Igalia, S.L.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.libreplan.web.planner.reschedule;
+
+import org.libreplan.business.planner.entities.TaskElement;
+import org.zkoss.ganttz.extensions.ICommand;
+
+/**
+ * Command to reschedule all the tasks of a project enforcing again all the
+ * dependencies and constraints. It's done in the background, so it can be
+ * used for projects with thousands of tasks.
+ */
+public interface IRescheduleCommand extends ICommand<TaskElement> {
+
+}
@@ -0,0 +1,217 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2014 Igalia, S.L.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.libreplan.web.planner.reschedule;
+
+import static org.libreplan.web.I18nHelper._;
+import static org.zkoss.ganttz.util.LongOperationFeedback.and;
+
+import org.libreplan.business.planner.entities.TaskElement;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Scope;
+import org.springframework.stereotype.Component;
+import org.zkoss.ganttz.data.Dependency;
+import org.zkoss.ganttz.data.GanttDiagramGraph;
+import org.zkoss.ganttz.data.GanttDiagramGraph.IEnforcementProgressListener;
+import org.zkoss.ganttz.data.Task;
+import org.zkoss.ganttz.extensions.IContext;
+import org.zkoss.ganttz.util.IAction;
+import org.zkoss.ganttz.util.LongOperationFeedback;
+import org.zkoss.ganttz.util.LongOperationFeedback.IBackGroundOperation;
+import org.zkoss.ganttz.util.LongOperationFeedback.IDesktopUpdate;
+import org.zkoss.ganttz.util.LongOperationFeedback.IDesktopUpdatesEmitter;
+import org.zkoss.zk.ui.event.Event;
+import org.zkoss.zk.ui.event.EventListener;
+import org.zkoss.zk.ui.event.Events;
+import org.zkoss.zk.ui.util.Clients;
+import org.zkoss.zul.Messagebox;
+
+/**
+ * Enforces all the restrictions of the planner graph outside of the request
+ * thread. The tasks are moved in topological order and, as usual, each task
+ * moved reallocates its resources. The changes are only notified to the
+ * desktop once all of them have been calculated and, like any other change in
+ * the planner, they are not stored until the project is saved.<br />
+ *
+ * The restrictions enforced when a task is edited, for instance when it's
+ * moved, are not affected and they are still enforced in the request thread.
+ */
+@Component
+@Scope(BeanDefinition.SCOPE_PROTOTYPE)
+public class RescheduleCommand implements IRescheduleCommand {
+
+    @Override
+    public void doAction(final IContext<TaskElement> context) {
+        LongOperationFeedback.progressive(context.getRelativeTo()
+                .getDesktop(), reschedule(context));
+    }
+
+    private IBackGroundOperation<IDesktopUpdate> reschedule(
+            final IContext<TaskElement> context) {
+        return new IBackGroundOperation<IDesktopUpdate>() {
+
+            @Override
+            public void doOperation(
+                    final IDesktopUpdatesEmitter<IDesktopUpdate> updater) {
+                updater.doUpdate(showProgress(0));
+                GanttDiagramGraph<Task, Dependency>.DeferedNotifier notifications = null;
+                try {
+                    GanttDiagramGraph<Task, Dependency> ganttDiagramGraph = context
+                            .getGanttDiagramGraph();
+                    notifications = ganttDiagramGraph
+                            .manualNotificationOn(enforceAllRestrictions(
+                                    ganttDiagramGraph, updater));
+                } finally {
+                    if (notifications != null) {
+                        // null if error
+                        updater.doUpdate(and(doNotifications(notifications),
+                                reloadCharts(context), busyEnd()));
+                    } else {
+                        updater.doUpdate(and(busyEnd(),
+                                tellUserOnFailure(context)));
+                    }
+                }
+            }
+        };
+    }
+
+    private IAction enforceAllRestrictions(
+            final GanttDiagramGraph<Task, Dependency> diagramGraph,
+            final IDesktopUpdatesEmitter<IDesktopUpdate> updater) {
+        return new IAction() {
+
+            @Override
+            public void doAction() {
+                diagramGraph
+                        .enforceAllRestrictions(progressSentTo(updater));
+            }
+        };
+    }
+
+    /**
+     * The progress is only sent when the percentage changes, otherwise the
+     * desktop would be flooded with updates for big projects
+     */
+    private IEnforcementProgressListener progressSentTo(
+            final IDesktopUpdatesEmitter<IDesktopUpdate> updater) {
+        return new IEnforcementProgressListener() {
+
+            private int lastPercentage = 0;
+
+            @Override
+            public void recalculated(int done, int total) {
+                int percentage = done * 100 / total;
+                if (percentage > lastPercentage) {
+                    lastPercentage = percentage;
+                    updater.doUpdate(showProgress(percentage));
+                }
+            }
+        };
+    }
+
+    private IDesktopUpdate showProgress(final int percentage) {
+        return new IDesktopUpdate() {
+
+            @Override
+            public void doUpdate() {
+                Clients.showBusy(_("Rescheduling: {0}%", percentage), true);
+            }
+        };
+    }
+
+    private IDesktopUpdate reloadCharts(final IContext<?> context) {
+        return new IDesktopUpdate() {
+            @Override
+            public void doUpdate() {
+                context.reloadCharts();
+            }
+        };
+    }
+
+    private IDesktopUpdate doNotifications(
+            final GanttDiagramGraph<Task, Dependency>.DeferedNotifier notifier) {
+        return new IDesktopUpdate() {
+            @Override
+            public void doUpdate() {
+                notifier.doNotifications();
+            }
+        };
+    }
+
+    private IDesktopUpdate tellUserOnFailure(final IContext<TaskElement> context) {
+        return new IDesktopUpdate() {
+
+            @Override
+            public void doUpdate() {
+                final org.zkoss.zk.ui.Component relativeTo = context
+                        .getRelativeTo();
+                final String eventName = "onLater";
+
+                Events.echoEvent(eventName, relativeTo, null);
+
+                relativeTo.addEventListener(eventName, new EventListener() {
+
+                    @Override
+                    public void onEvent(Event event) {
+                        relativeTo.removeEventListener(eventName, this);
+                        try {
+                            // built here, so the locale of the user is used
+                            Messagebox.show(
+                                    _("Rescheduling could not be completed"),
+                                    _("Reschedule"), Messagebox.OK,
+                                    Messagebox.EXCLAMATION);
+                        } catch (InterruptedException e) {
+                            throw new RuntimeException(e);
+                        }
+                    }
+                });
+            }
+        };
+    }
+
+    private IDesktopUpdate busyEnd() {
+        return new IDesktopUpdate() {
+
+            @Override
+            public void doUpdate() {
+                Clients.showBusy(null, false);
+            }
+        };
+    }
+
+    @Override
+    public String getName() {
+        return _("Reschedule");
+    }
+
+    @Override
+    public String getImage() {
+        return "/common/img/ico_planificador.png";
+    }
+
+    @Override
+    public boolean isDisabled() {
+        return false;
+    }
+
+    @Override
+    public boolean isPlannerCommand() {
+        return true;
+    }
+
+}
@@ -26,12 +26,17 @@ import java.util.Map;
 
 import net.sf.jasperreports.engine.JRDataSource;
 import net.sf.jasperreports.engine.JRParameter;
+import net.sf.jasperreports.engine.fill.JRSwapFileVirtualizer;
+import net.sf.jasperreports.engine.util.JRSwapFile;
 
 import org.apache.commons.lang.StringUtils;
 import org.libreplan.business.common.Registry;
 import org.zkoss.util.Locales;
 import org.zkoss.zk.au.out.AuDownload;
+import org.zkoss.zk.ui.Component;
+import org.zkoss.zk.ui.Desktop;
 import org.zkoss.zk.ui.Executions;
+import org.zkoss.zk.ui.util.DesktopCleanup;
 import org.zkoss.zk.ui.util.GenericForwardComposer;
 import org.zkoss.zul.A;
 import org.zkoss.zul.Hbox;
@@ -55,18 +60,50 @@ public abstract class LibrePlanReportController extends GenericForwardComposer {
 
     private static final String HTML = "html";
 
+    /**
+     * Number of report pages kept in memory while filling a report, the rest
+     * are swapped to a temporary file
+     */
+    private static final int MAX_PAGES_IN_MEMORY = 50;
+
+    private static final int SWAP_BLOCK_SIZE = 4096;
+
+    private static final int SWAP_MIN_GROW_COUNT = 100;
+
     protected ComboboxOutputFormat outputFormat;
 
     protected Hbox URItext;
 
     protected A URIlink;
 
+    /**
+     * The report is filled and exported by the {@link JasperreportComponent}
+     * each time its URL is requested, so the pages swapped by the virtualizer
+     * are needed until another report is shown or the desktop is destroyed
+     */
+    private JRSwapFileVirtualizer virtualizer;
+
+    @Override
+    public void doAfterCompose(Component comp) throws Exception {
+        super.doAfterCompose(comp);
+        comp.getDesktop().addListener(new DesktopCleanup() {
+
+            @Override
+            public void cleanup(Desktop desktop) throws Exception {
+                cleanupVirtualizer();
+            }
+        });
+    }
+
     public void showReport(JasperreportComponent jasperreport){
         final String type = outputFormat.getOutputFormat();
 
+        Map<String, Object> parameters = getParameters();
+        parameters.put(JRParameter.REPORT_VIRTUALIZER, replaceVirtualizer());
+
         jasperreport.setSrc(getReportName());
         jasperreport.setDatasource(getDataSource());
-        jasperreport.setParameters(getParameters());
+        jasperreport.setParameters(parameters);
         jasperreport.setType(type);
 
         if (type.equals(HTML)) {
@@ -96,6 +133,29 @@ public abstract class LibrePlanReportController extends GenericForwardComposer {
         return parameters;
     }
 
+    JRSwapFileVirtualizer replaceVirtualizer() {
+        cleanupVirtualizer();
+        virtualizer = createVirtualizer();
+        return virtualizer;
+    }
+
+    JRSwapFileVirtualizer createVirtualizer() {
+        JRSwapFile swapFile = new JRSwapFile(
+                System.getProperty("java.io.tmpdir"), SWAP_BLOCK_SIZE,
+                SWAP_MIN_GROW_COUNT);
+        return new JRSwapFileVirtualizer(MAX_PAGES_IN_MEMORY, swapFile, true);
+    }
+
+    void cleanupVirtualizer() {
+        if (virtualizer != null) {
+            try {
+                virtualizer.cleanup();
+            } finally {
+                virtualizer = null;
+            }
+        }
+    }
+
     protected abstract JRDataSource getDataSource();
 
     protected abstract String getReportName();
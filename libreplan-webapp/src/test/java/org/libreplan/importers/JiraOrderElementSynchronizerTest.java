@@ -20,6 +20,7 @@
 package org.libreplan.importers;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.libreplan.business.BusinessGlobalNames.BUSINESS_SPRING_CONFIG_FILE;
 import static org.libreplan.web.WebappGlobalNames.WEBAPP_SPRING_CONFIG_FILE;
@@ -32,6 +33,7 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 import java.util.Properties;
@@ -39,6 +41,7 @@ import java.util.UUID;
 
 import javax.annotation.Resource;
 
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Ignore;
 import org.junit.Test;
@@ -47,13 +50,27 @@ import org.libreplan.business.IDataBootstrap;
 import org.libreplan.business.common.IAdHocTransactionService;
 import org.libreplan.business.common.IOnTransaction;
 import org.libreplan.business.common.daos.IConfigurationDAO;
+import org.libreplan.business.common.entities.IConnectorBootstrap;
+import org.libreplan.business.common.entities.PredefinedConnectorProperties;
+import org.libreplan.business.common.entities.PredefinedConnectors;
 import org.libreplan.business.common.exceptions.InstanceNotFoundException;
+import org.libreplan.business.costcategories.entities.ITypeOfWorkHoursBootstrap;
 import org.libreplan.business.orders.daos.IOrderDAO;
+import org.libreplan.business.orders.daos.IOrderSyncInfoDAO;
 import org.libreplan.business.orders.entities.Order;
+import org.libreplan.business.orders.entities.OrderLine;
+import org.libreplan.business.orders.entities.OrderSyncInfo;
 import org.libreplan.business.scenarios.IScenarioManager;
 import org.libreplan.business.scenarios.entities.OrderVersion;
 import org.libreplan.business.scenarios.entities.Scenario;
+import org.libreplan.business.workreports.entities.IWorkReportTypeBootstrap;
+import org.libreplan.importers.jira.FieldDTO;
 import org.libreplan.importers.jira.IssueDTO;
+import org.libreplan.importers.jira.TimeTrackingDTO;
+import org.libreplan.importers.jira.WorkLogAuthorDTO;
+import org.libreplan.importers.jira.WorkLogDTO;
+import org.libreplan.importers.jira.WorkLogItemDTO;
+import org.libreplan.web.orders.IOrderModel;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
@@ -80,6 +97,15 @@ public class JiraOrderElementSynchronizerTest {
     @Resource
     private IDataBootstrap configurationBootstrap;
 
+    @Resource
+    private ITypeOfWorkHoursBootstrap typeOfWorkHoursBootstrap;
+
+    @Resource
+    private IWorkReportTypeBootstrap workReportTypeBootstrap;
+
+    @Resource
+    private IConnectorBootstrap connectorBootstrap;
+
     @Autowired
     private IAdHocTransactionService transactionService;
 
@@ -97,6 +123,17 @@ public class JiraOrderElementSynchronizerTest {
     @Autowired
     private IJiraOrderElementSynchronizer jiraOrderElementSynchronizer;
 
+    @Autowired
+    private IOrderSyncInfoDAO orderSyncInfoDAO;
+
+    @Autowired
+    private IOrderModel orderModel;
+
+    /**
+     * Orders committed on other transactions, that have to be removed after
+     * each test
+     */
+    private List<Long> storedOrderIds = new ArrayList<Long>();
 
     @Before
     public void loadRequiredaData() {
@@ -108,7 +145,9 @@ public class JiraOrderElementSynchronizerTest {
                 defaultAdvanceTypesBootstrapListener.loadRequiredData();
                 configurationBootstrap.loadRequiredData();
                 scenariosBootstrap.loadRequiredData();
-                issues = getJiraIssues();
+                typeOfWorkHoursBootstrap.loadRequiredData();
+                workReportTypeBootstrap.loadRequiredData();
+                connectorBootstrap.loadRequiredData();
                 return null;
             }
         };
@@ -116,6 +155,43 @@ public class JiraOrderElementSynchronizerTest {
         transactionService.runOnAnotherTransaction(load);
     }
 
+    @After
+    public void removeStoredOrders() {
+        transactionService.runOnAnotherTransaction(new IOnTransaction<Void>() {
+            @Override
+            public Void execute() {
+                for (Long each : storedOrderIds) {
+                    removeOrder(each);
+                }
+                return null;
+            }
+        });
+    }
+
+    private void removeOrder(Long id) {
+        Order order;
+        try {
+            order = orderDAO.find(id);
+        } catch (InstanceNotFoundException e) {
+            // its transaction was rolled back
+            return;
+        }
+        for (OrderSyncInfo each : orderSyncInfoDAO
+                .findLastSynchronizedInfosByOrderAndConnectorName(order,
+                        PredefinedConnectors.JIRA.getName())) {
+            try {
+                orderSyncInfoDAO.remove(each.getId());
+            } catch (InstanceNotFoundException e) {
+                throw new RuntimeException(e);
+            }
+        }
+        orderModel.remove(order);
+    }
+
+    private void loadJiraIssues() {
+        issues = getJiraIssues();
+    }
+
     private List<IssueDTO> getJiraIssues() {
         List<IssueDTO> issues = new ArrayList<IssueDTO>();
         try {
@@ -171,6 +247,7 @@ public class JiraOrderElementSynchronizerTest {
 
         orderDAO.save(order);
         orderDAO.flush();
+        storedOrderIds.add(order.getId());
         try {
             return orderDAO.find(order.getId());
         } catch (InstanceNotFoundException e) {
@@ -210,10 +287,120 @@ public class JiraOrderElementSynchronizerTest {
         return result;
     }
 
+    private static final String ISSUE_KEY = "LP-1";
+
+    private IssueDTO givenIssue(int estimatedHours) {
+        TimeTrackingDTO timeTracking = new TimeTrackingDTO();
+        timeTracking.setOriginalEstimateSeconds(estimatedHours * 3600);
+        timeTracking.setTimeSpentSeconds(3600);
+
+        WorkLogAuthorDTO author = new WorkLogAuthorDTO();
+        author.setName("not-a-worker");
+        WorkLogItemDTO workLogItem = new WorkLogItemDTO();
+        workLogItem.setAuthor(author);
+        workLogItem.setStarted(new Date());
+        workLogItem.setTimeSpentSeconds(3600);
+        WorkLogDTO workLog = new WorkLogDTO();
+        workLog.setWorklogs(Arrays.asList(workLogItem));
+
+        FieldDTO fields = new FieldDTO();
+        fields.setSummary("Issue " + ISSUE_KEY);
+        fields.setTimetracking(timeTracking);
+        fields.setWorklog(workLog);
+
+        IssueDTO result = new IssueDTO();
+        result.setKey(ISSUE_KEY);
+        result.setFields(fields);
+        return result;
+    }
+
+    private IssueDTO givenIssueWithoutWorkLog(int estimatedHours) {
+        IssueDTO result = givenIssue(estimatedHours);
+        result.getFields().setWorklog(null);
+        return result;
+    }
+
+    private static String codeFor(Order order) {
+        return PredefinedConnectorProperties.JIRA_CODE_PREFIX
+                + order.getCode() + "-" + ISSUE_KEY;
+    }
+
+    /**
+     * The order is stored with the line of the issue already synchronized and
+     * then returned as loaded by another session, without its children
+     * initialized
+     */
+    private Order givenDetachedOrderWithLineOfIssue(final int workHours) {
+        final Long id = transactionService
+                .runOnAnotherTransaction(new IOnTransaction<Long>() {
+                    @Override
+                    public Long execute() {
+                        Order order = givenValidOrderAlreadyStored();
+                        OrderLine line = OrderLine
+                                .createOrderLineWithUnfixedPercentage(workHours);
+                        line.setCode(codeFor(order));
+                        line.setName("Issue " + ISSUE_KEY);
+                        line.getHoursGroups().get(0).setCode(codeFor(order));
+                        order.add(line);
+                        orderDAO.save(order);
+                        orderDAO.flush();
+                        return order.getId();
+                    }
+                });
+        return transactionService
+                .runOnReadOnlyTransaction(new IOnTransaction<Order>() {
+                    @Override
+                    public Order execute() {
+                        try {
+                            return orderDAO.find(id);
+                        } catch (InstanceNotFoundException e) {
+                            throw new RuntimeException(e);
+                        }
+                    }
+                });
+    }
+
+    private Integer workHoursOfLineOfIssue(final Order order) {
+        return transactionService
+                .runOnReadOnlyTransaction(new IOnTransaction<Integer>() {
+                    @Override
+                    public Integer execute() {
+                        try {
+                            return orderDAO.find(order.getId())
+                                    .getOrderElement(codeFor(order))
+                                    .getWorkHours();
+                        } catch (InstanceNotFoundException e) {
+                            throw new RuntimeException(e);
+                        }
+                    }
+                });
+    }
+
+    @Test
+    public void testSyncOnItsOwnTransactionAnOrderLoadedOnAnotherSession() {
+        Order order = givenDetachedOrderWithLineOfIssue(5);
+        jiraOrderElementSynchronizer.syncOrderOnItsOwnTransaction(ISSUE_KEY,
+                order, Arrays.asList(givenIssue(10)));
+        assertTrue(jiraOrderElementSynchronizer.getSynchronizationInfo()
+                .isSuccessful());
+        assertEquals(10, workHoursOfLineOfIssue(order).intValue());
+    }
+
+    @Test
+    public void testSyncOnItsOwnTransactionIsRolledBackIfItFails() {
+        Order order = givenDetachedOrderWithLineOfIssue(5);
+        jiraOrderElementSynchronizer.syncOrderOnItsOwnTransaction(ISSUE_KEY,
+                order, Arrays.asList(givenIssueWithoutWorkLog(10)));
+        assertFalse(jiraOrderElementSynchronizer.getSynchronizationInfo()
+                .isSuccessful());
+        assertEquals(5, workHoursOfLineOfIssue(order).intValue());
+    }
+
     @Test
     @Transactional
     @Ignore("Only working if you have a JIRA server configured")
     public void testSyncOrderElementsOfAnExistingOrderWithNoOrderLines() {
+        loadJiraIssues();
         Order order = givenOrder();
         jiraOrderElementSynchronizer.syncOrderElementsWithJiraIssues(issues, order);
         assertEquals(order.getOrderElements().size(), issues.size());
@@ -226,6 +413,7 @@ public class JiraOrderElementSynchronizerTest {
     @Transactional
     @Ignore("Only working if you have a JIRA server configured")
     public void testReSyncOrderElementsOfAnExistingOrderWithOrderLines() {
+        loadJiraIssues();
         Order order = givenOrderWithValidOrderLines();
         Integer workingHours = order.getWorkHours();
         jiraOrderElementSynchronizer.syncOrderElementsWithJiraIssues(issues, order);
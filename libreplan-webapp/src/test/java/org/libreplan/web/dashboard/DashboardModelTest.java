@@ -0,0 +1,223 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2014 Igalia, S.L.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.web.dashboard;
+
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.expectLastCall;
+import static org.easymock.EasyMock.isA;
+import static org.easymock.classextension.EasyMock.createMock;
+import static org.easymock.classextension.EasyMock.createNiceMock;
+import static org.easymock.classextension.EasyMock.replay;
+import static org.easymock.classextension.EasyMock.verify;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.easymock.EasyMock;
+import org.easymock.IAnswer;
+import org.joda.time.LocalDate;
+import org.junit.Before;
+import org.junit.Test;
+import org.libreplan.business.orders.entities.Order;
+import org.libreplan.business.planner.chart.ContiguousDaysLine;
+import org.libreplan.business.planner.entities.IOrderResourceLoadCalculator;
+import org.libreplan.business.planner.entities.Task;
+import org.libreplan.business.planner.entities.TaskElement;
+import org.libreplan.business.planner.entities.TaskGroup;
+import org.libreplan.business.planner.entities.TaskStatusEnum;
+import org.libreplan.business.planner.entities.visitors.AccumulateTasksStatusVisitor;
+import org.libreplan.business.resources.entities.IAssignmentsOnResourceCalculator;
+import org.libreplan.business.util.TaskElementVisitor;
+import org.libreplan.business.workingday.EffortDuration;
+import org.libreplan.web.planner.order.PlanningStateCreator.PlanningState;
+
+/**
+ * Tests for the metrics kept by {@link DashboardModel} for the current order
+ */
+public class DashboardModelTest {
+
+    private static final LocalDate START = new LocalDate(2014, 1, 6);
+
+    private static final List<TaskElement> NO_CRITICAL_PATH = Collections
+            .emptyList();
+
+    private IOrderResourceLoadCalculator resourceLoadCalculator;
+
+    private DashboardModel dashboardModel;
+
+    private int taskStatusCalculations;
+
+    @Before
+    public void setUp() {
+        resourceLoadCalculator = createMock(IOrderResourceLoadCalculator.class);
+        dashboardModel = new DashboardModel(resourceLoadCalculator);
+        taskStatusCalculations = 0;
+    }
+
+    private PlanningState givenOrderWithTaskIn(TaskStatusEnum status) {
+        Task task = createNiceMock(Task.class);
+        expect(task.getTaskStatus()).andReturn(status).anyTimes();
+
+        TaskGroup rootTask = createNiceMock(TaskGroup.class);
+        rootTask.acceptVisitor(isA(TaskElementVisitor.class));
+        expectLastCall().andAnswer(countingTaskStatusVisits(task)).anyTimes();
+
+        Order order = createNiceMock(Order.class);
+        expect(order.getAssociatedTaskElement()).andReturn(rootTask)
+                .anyTimes();
+
+        PlanningState planningState = createNiceMock(PlanningState.class);
+        expect(planningState.getOrder()).andReturn(order).anyTimes();
+
+        replay(task, rootTask, order, planningState);
+        return planningState;
+    }
+
+    private IAnswer<Object> countingTaskStatusVisits(final Task task) {
+        return new IAnswer<Object>() {
+
+            @Override
+            public Object answer() {
+                Object visitor = EasyMock.getCurrentArguments()[0];
+                if (visitor instanceof AccumulateTasksStatusVisitor) {
+                    taskStatusCalculations++;
+                    ((AccumulateTasksStatusVisitor) visitor).visit(task);
+                }
+                return null;
+            }
+        };
+    }
+
+    private static ContiguousDaysLine<EffortDuration> twoDaysOf(
+            EffortDuration effort) {
+        ContiguousDaysLine<EffortDuration> result = ContiguousDaysLine
+                .create(START, START.plusDays(2));
+        result.setValueForAll(effort);
+        return result;
+    }
+
+    private void givenLoadLinesAreNotNeeded() {
+        expectOrderIsSetInCalculator();
+        replay(resourceLoadCalculator);
+    }
+
+    private void expectOrderIsSetInCalculator() {
+        resourceLoadCalculator.setOrder(isA(Order.class),
+                EasyMock.<IAssignmentsOnResourceCalculator> anyObject());
+        expectLastCall().anyTimes();
+    }
+
+    private void givenLoadLinesAreCalculated(int times) {
+        expectOrderIsSetInCalculator();
+        expect(resourceLoadCalculator.getAllLoad()).andReturn(
+                twoDaysOf(EffortDuration.hours(8))).times(times);
+        expect(resourceLoadCalculator.getAllOverload()).andReturn(
+                twoDaysOf(EffortDuration.hours(4))).times(times);
+        expect(resourceLoadCalculator.getMaxCapacityOnResources()).andReturn(
+                twoDaysOf(EffortDuration.hours(10))).anyTimes();
+        replay(resourceLoadCalculator);
+    }
+
+    @Test
+    public void theTaskStatusCalculatedWhenTheOrderIsSetIsReused() {
+        givenLoadLinesAreNotNeeded();
+        dashboardModel.setCurrentOrder(
+                givenOrderWithTaskIn(TaskStatusEnum.FINISHED),
+                NO_CRITICAL_PATH);
+
+        Map<TaskStatusEnum, Integer> first = dashboardModel
+                .calculateTaskStatus();
+        Map<TaskStatusEnum, Integer> second = dashboardModel
+                .calculateTaskStatus();
+
+        assertThat(taskStatusCalculations, equalTo(1));
+        assertThat(first.get(TaskStatusEnum.FINISHED), equalTo(1));
+        assertThat(second, equalTo(first));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void theTaskStatusReturnedCannotBeModified() {
+        givenLoadLinesAreNotNeeded();
+        dashboardModel.setCurrentOrder(
+                givenOrderWithTaskIn(TaskStatusEnum.FINISHED),
+                NO_CRITICAL_PATH);
+
+        dashboardModel.calculateTaskStatus().put(TaskStatusEnum.BLOCKED, 1);
+    }
+
+    @Test
+    public void theTaskStatusIsCalculatedAgainWhenTheOrderChanges() {
+        givenLoadLinesAreNotNeeded();
+        dashboardModel.setCurrentOrder(
+                givenOrderWithTaskIn(TaskStatusEnum.FINISHED),
+                NO_CRITICAL_PATH);
+        dashboardModel.calculateTaskStatus();
+
+        dashboardModel.setCurrentOrder(
+                givenOrderWithTaskIn(TaskStatusEnum.BLOCKED),
+                NO_CRITICAL_PATH);
+        Map<TaskStatusEnum, Integer> result = dashboardModel
+                .calculateTaskStatus();
+
+        assertThat(taskStatusCalculations, equalTo(2));
+        assertThat(result.get(TaskStatusEnum.FINISHED), equalTo(0));
+        assertThat(result.get(TaskStatusEnum.BLOCKED), equalTo(1));
+    }
+
+    @Test
+    public void theLoadAndOverloadAreSummedOnceForTheOrder() {
+        givenLoadLinesAreCalculated(1);
+        dashboardModel.setCurrentOrder(
+                givenOrderWithTaskIn(TaskStatusEnum.FINISHED),
+                NO_CRITICAL_PATH);
+
+        BigDecimal overtime = dashboardModel.getOvertimeRatio();
+        BigDecimal availability = dashboardModel.getAvailabilityRatio();
+
+        assertThat(dashboardModel.getOvertimeRatio(), equalTo(overtime));
+        assertThat(dashboardModel.getAvailabilityRatio(),
+                equalTo(availability));
+        assertThat(overtime, equalTo(new BigDecimal("0.50")));
+        assertThat(availability, equalTo(new BigDecimal("0.60000000")));
+        verify(resourceLoadCalculator);
+    }
+
+    @Test
+    public void theLoadAndOverloadAreSummedAgainWhenTheOrderChanges() {
+        givenLoadLinesAreCalculated(2);
+        dashboardModel.setCurrentOrder(
+                givenOrderWithTaskIn(TaskStatusEnum.FINISHED),
+                NO_CRITICAL_PATH);
+        dashboardModel.getOvertimeRatio();
+
+        dashboardModel.setCurrentOrder(
+                givenOrderWithTaskIn(TaskStatusEnum.FINISHED),
+                NO_CRITICAL_PATH);
+        dashboardModel.getOvertimeRatio();
+        dashboardModel.getAvailabilityRatio();
+
+        verify(resourceLoadCalculator);
+    }
+
+}
@@ -0,0 +1,118 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2014 Igalia, S.L.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.web.limitingresources;
+
+import static org.easymock.classextension.EasyMock.createNiceMock;
+import static org.easymock.classextension.EasyMock.replay;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.libreplan.business.planner.limiting.entities.LimitingResourceQueueElement;
+import org.libreplan.web.limitingresources.LimitingResourcesController.AssignmentProgress;
+
+/**
+ * Tests for the progress of the assignment of the selected queue elements
+ * shown by {@link LimitingResourcesController}
+ */
+public class AssignmentProgressTest {
+
+    private static final List<LimitingResourceQueueElement> NOTHING_INSERTED = Collections
+            .emptyList();
+
+    private List<Integer> percentages;
+
+    private AssignmentProgress progress;
+
+    @Before
+    public void setUp() {
+        percentages = new ArrayList<Integer>();
+        progress = new AssignmentProgress() {
+
+            @Override
+            protected void progressChanged(int percentage) {
+                percentages.add(percentage);
+            }
+        };
+    }
+
+    private static LimitingResourceQueueElement createElement() {
+        LimitingResourceQueueElement result = createNiceMock(LimitingResourceQueueElement.class);
+        replay(result);
+        return result;
+    }
+
+    @Test
+    public void theProgressIsNotifiedOnlyWhenThePercentageChanges() {
+        int total = 1000;
+        for (int done = 1; done <= total; done++) {
+            progress.assigned(NOTHING_INSERTED, done, total);
+        }
+
+        assertThat(percentages.size(), equalTo(100));
+        for (int i = 0; i < percentages.size(); i++) {
+            assertThat(percentages.get(i), equalTo(i + 1));
+        }
+    }
+
+    @Test
+    public void theProgressIsNotifiedForEachElementIfThereAreFew() {
+        for (int done = 1; done <= 3; done++) {
+            progress.assigned(NOTHING_INSERTED, done, 3);
+        }
+
+        assertThat(percentages, equalTo(Arrays.asList(33, 66, 100)));
+    }
+
+    @Test
+    public void theInsertedElementsAreAccumulated() {
+        LimitingResourceQueueElement first = createElement();
+        LimitingResourceQueueElement moved = createElement();
+        LimitingResourceQueueElement second = createElement();
+
+        progress.assigned(Arrays.asList(first, moved), 1, 3);
+        progress.assigned(NOTHING_INSERTED, 2, 3);
+        progress.assigned(Arrays.asList(second, moved), 3, 3);
+
+        assertThat(progress.getInserted(),
+                equalTo((Set<LimitingResourceQueueElement>) new HashSet<LimitingResourceQueueElement>(
+                        Arrays.asList(first, moved, second))));
+    }
+
+    @Test
+    public void theInsertedElementsReturnedAreNotChangedByLaterAssignments() {
+        progress.assigned(Arrays.asList(createElement()), 1, 2);
+        Set<LimitingResourceQueueElement> inserted = progress.getInserted();
+
+        progress.assigned(Arrays.asList(createElement()), 2, 2);
+
+        assertThat(inserted.size(), equalTo(1));
+        assertThat(progress.getInserted().size(), equalTo(2));
+    }
+
+}
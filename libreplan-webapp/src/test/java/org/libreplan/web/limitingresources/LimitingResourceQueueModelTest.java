@@ -0,0 +1,183 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2014 Igalia, S.L.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.web.limitingresources;
+
+import static org.easymock.EasyMock.expect;
+import static org.easymock.classextension.EasyMock.createNiceMock;
+import static org.easymock.classextension.EasyMock.replay;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.libreplan.business.planner.limiting.entities.LimitingResourceQueueElement;
+import org.libreplan.web.limitingresources.ILimitingResourceQueueModel.IAssignmentProgressListener;
+
+/**
+ * Tests for the assignment of several queue elements at once done by
+ * {@link LimitingResourceQueueModel}. The assignment of each element is
+ * replaced by the elements it inserts in the queues.
+ */
+public class LimitingResourceQueueModelTest {
+
+    private LimitingResourceQueueElement first;
+
+    private LimitingResourceQueueElement second;
+
+    private LimitingResourceQueueElement moved;
+
+    private Map<LimitingResourceQueueElement, List<LimitingResourceQueueElement>> insertedBy;
+
+    private List<List<LimitingResourceQueueElement>> notifiedInserted;
+
+    private List<Integer> notifiedDone;
+
+    private List<Integer> notifiedTotals;
+
+    private IAssignmentProgressListener listener = new IAssignmentProgressListener() {
+
+        @Override
+        public void assigned(List<LimitingResourceQueueElement> inserted,
+                int done, int total) {
+            notifiedInserted.add(inserted);
+            notifiedDone.add(done);
+            notifiedTotals.add(total);
+        }
+    };
+
+    @Before
+    public void setUp() {
+        first = createNiceMock(LimitingResourceQueueElement.class);
+        second = createNiceMock(LimitingResourceQueueElement.class);
+        moved = createNiceMock(LimitingResourceQueueElement.class);
+        replay(first, second, moved);
+        insertedBy = new HashMap<LimitingResourceQueueElement, List<LimitingResourceQueueElement>>();
+        notifiedInserted = new ArrayList<List<LimitingResourceQueueElement>>();
+        notifiedDone = new ArrayList<Integer>();
+        notifiedTotals = new ArrayList<Integer>();
+    }
+
+    /**
+     * The queues state orders the elements to assign, the second one goes
+     * first
+     */
+    private LimitingResourceQueueModel givenModel() {
+        List<LimitingResourceQueueElement> ordered = Arrays.asList(second,
+                first);
+        QueuesState queuesState = createNiceMock(QueuesState.class);
+        expect(queuesState.inTopologicalOrderByLatestStart(elements()))
+                .andReturn(ordered).anyTimes();
+        replay(queuesState);
+        return new LimitingResourceQueueModel(queuesState) {
+
+            @Override
+            public List<LimitingResourceQueueElement> assignLimitingResourceQueueElement(
+                    LimitingResourceQueueElement element) {
+                List<LimitingResourceQueueElement> result = insertedBy
+                        .get(element);
+                if (result == null) {
+                    throw new RuntimeException("assignment failed");
+                }
+                return result;
+            }
+        };
+    }
+
+    private List<LimitingResourceQueueElement> elements() {
+        return Arrays.asList(first, second);
+    }
+
+    private void givenAssignmentsInsert() {
+        insertedBy.put(second, Arrays.asList(second, moved));
+        insertedBy.put(first, Collections.singletonList(first));
+    }
+
+    @Test
+    public void theListenerIsNotifiedAfterEachAssignmentInOrder() {
+        givenAssignmentsInsert();
+
+        givenModel().assignLimitingResourceQueueElements(elements(), listener);
+
+        assertThat(notifiedDone, equalTo(Arrays.asList(1, 2)));
+        assertThat(notifiedTotals, equalTo(Arrays.asList(2, 2)));
+    }
+
+    @Test
+    public void theListenerReceivesTheElementsInsertedByEachAssignment() {
+        givenAssignmentsInsert();
+
+        givenModel().assignLimitingResourceQueueElements(elements(), listener);
+
+        assertThat(notifiedInserted.get(0), equalTo(Arrays.asList(second,
+                moved)));
+        assertThat(notifiedInserted.get(1),
+                equalTo(Collections.singletonList(first)));
+    }
+
+    @Test
+    public void allTheInsertedElementsAreReturned() {
+        givenAssignmentsInsert();
+
+        Set<LimitingResourceQueueElement> result = givenModel()
+                .assignLimitingResourceQueueElements(elements(), listener);
+
+        assertThat(result, equalTo((Set<LimitingResourceQueueElement>) new HashSet<LimitingResourceQueueElement>(
+                Arrays.asList(first, second, moved))));
+    }
+
+    @Test
+    public void theElementsNotInsertedAreNotifiedToo() {
+        insertedBy.put(second, Collections.<LimitingResourceQueueElement> emptyList());
+        insertedBy.put(first, Collections.singletonList(first));
+
+        givenModel().assignLimitingResourceQueueElements(elements(), listener);
+
+        assertThat(notifiedDone, equalTo(Arrays.asList(1, 2)));
+        assertThat(notifiedInserted.get(0).isEmpty(), equalTo(true));
+    }
+
+    @Test
+    public void theAssignmentsDoneBeforeAFailureAreNotified() {
+        insertedBy.put(second, Arrays.asList(second, moved));
+
+        try {
+            givenModel().assignLimitingResourceQueueElements(elements(),
+                    listener);
+            fail("the assignment of the first element fails");
+        } catch (RuntimeException e) {
+            // expected
+        }
+
+        assertThat(notifiedDone, equalTo(Collections.singletonList(1)));
+        assertThat(notifiedInserted.get(0), equalTo(Arrays.asList(second,
+                moved)));
+    }
+
+}
@@ -0,0 +1,271 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2014 Igalia, S.L.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.web.limitingresources;
+
+import static org.easymock.EasyMock.expect;
+import static org.easymock.classextension.EasyMock.createNiceMock;
+import static org.easymock.classextension.EasyMock.replay;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.joda.time.LocalDate;
+import org.junit.Before;
+import org.junit.Test;
+import org.libreplan.business.planner.entities.Dependency;
+import org.libreplan.business.planner.entities.Task;
+import org.libreplan.business.planner.limiting.entities.LimitingResourceQueueDependency;
+import org.libreplan.business.planner.limiting.entities.LimitingResourceQueueDependency.QueueDependencyType;
+import org.libreplan.business.planner.limiting.entities.LimitingResourceQueueElement;
+import org.libreplan.business.resources.entities.LimitingResourceQueue;
+
+/**
+ * Tests for the order in which {@link QueuesState} returns the elements to
+ * assign several of them at once. The days are counted from a fixed start.
+ */
+public class QueuesStateTest {
+
+    private static final LocalDate START = new LocalDate(2014, 1, 6);
+
+    private long nextId;
+
+    private List<LimitingResourceQueueElement> elements;
+
+    private Map<LimitingResourceQueueElement, Set<LimitingResourceQueueDependency>> dependenciesAsOrigin;
+
+    @Before
+    public void setUp() {
+        nextId = 1;
+        elements = new ArrayList<LimitingResourceQueueElement>();
+        dependenciesAsOrigin = new HashMap<LimitingResourceQueueElement, Set<LimitingResourceQueueDependency>>();
+    }
+
+    private static LocalDate day(Integer days) {
+        return days != null ? START.plusDays(days) : null;
+    }
+
+    /**
+     * @param durationInDays
+     *            the duration of the task in the Gantt, or <code>null</code>
+     *            if the task has no dates
+     * @param deadlineDay
+     *            <code>null</code> if there is no deadline
+     * @param earliestStartDay
+     *            the earliest start because of the Gantt, or
+     *            <code>null</code> if there is none
+     */
+    private LimitingResourceQueueElement element(Integer durationInDays,
+            Integer deadlineDay, Integer earliestStartDay) {
+        Task task = createNiceMock(Task.class);
+        expect(task.getDeadline()).andReturn(day(deadlineDay)).anyTimes();
+        if (durationInDays != null) {
+            expect(task.getStartAsLocalDate()).andReturn(START).anyTimes();
+            expect(task.getEndAsLocalDate()).andReturn(day(durationInDays))
+                    .anyTimes();
+        }
+
+        Set<LimitingResourceQueueDependency> dependencies = new HashSet<LimitingResourceQueueDependency>();
+        LimitingResourceQueueElement result = createNiceMock(LimitingResourceQueueElement.class);
+        expect(result.getId()).andReturn(nextId++).anyTimes();
+        expect(result.getTask()).andReturn(task).anyTimes();
+        expect(result.getDependenciesAsOrigin()).andReturn(dependencies)
+                .anyTimes();
+        LocalDate earliestStart = day(earliestStartDay);
+        Date earliestStartDate = earliestStart != null ? earliestStart
+                .toDateTimeAtStartOfDay().toDate() : null;
+        expect(result.getEarliestStartDateBecauseOfGantt()).andReturn(
+                earliestStartDate).anyTimes();
+        replay(task, result);
+
+        dependenciesAsOrigin.put(result, dependencies);
+        elements.add(result);
+        return result;
+    }
+
+    private LimitingResourceQueueElement elementWithDeadline(
+            int durationInDays, int deadlineDay) {
+        return element(durationInDays, deadlineDay, null);
+    }
+
+    private LimitingResourceQueueElement elementWithoutDeadline(
+            int durationInDays) {
+        return element(durationInDays, null, null);
+    }
+
+    /**
+     * An element lasting a day with the given latest start
+     */
+    private LimitingResourceQueueElement elementWithLatestStart(int day) {
+        return elementWithDeadline(1, day + 1);
+    }
+
+    private void dependency(LimitingResourceQueueElement origin,
+            LimitingResourceQueueElement destiny, QueueDependencyType type) {
+        Dependency ganttDependency = createNiceMock(Dependency.class);
+        replay(ganttDependency);
+        dependenciesAsOrigin.get(origin).add(
+                LimitingResourceQueueDependency.create(origin, destiny,
+                        ganttDependency, type));
+    }
+
+    private List<LimitingResourceQueueElement> inTopologicalOrderByLatestStart() {
+        QueuesState queuesState = new QueuesState(
+                Collections.<LimitingResourceQueue> emptyList(), elements);
+        return queuesState.inTopologicalOrderByLatestStart(elements);
+    }
+
+    private static void assertInOrder(
+            List<LimitingResourceQueueElement> result,
+            LimitingResourceQueueElement... expected) {
+        for (int i = 1; i < expected.length; i++) {
+            assertTrue(result.indexOf(expected[i - 1]) < result
+                    .indexOf(expected[i]));
+        }
+    }
+
+    /**
+     * An element lasting two days without deadline precedes one lasting five
+     * days with its deadline on day 20, so the latest start of the latter is
+     * day 15. The latest start of the origin is checked placing it between
+     * two independent elements with the latest starts around the expected
+     * one.
+     */
+    private void assertLatestStartOfOriginIs(QueueDependencyType type,
+            int expectedLatestStart) {
+        LimitingResourceQueueElement origin = elementWithoutDeadline(2);
+        LimitingResourceQueueElement destiny = elementWithDeadline(5, 20);
+        dependency(origin, destiny, type);
+        LimitingResourceQueueElement before = elementWithLatestStart(expectedLatestStart - 1);
+        LimitingResourceQueueElement after = elementWithLatestStart(expectedLatestStart + 1);
+
+        List<LimitingResourceQueueElement> result = inTopologicalOrderByLatestStart();
+
+        assertThat(result.size(), equalTo(4));
+        assertInOrder(result, before, origin, after);
+        assertInOrder(result, origin, destiny);
+    }
+
+    @Test
+    public void withEndStartTheOriginMustEndBeforeTheLatestStartOfTheDestiny() {
+        assertLatestStartOfOriginIs(QueueDependencyType.END_START, 13);
+    }
+
+    @Test
+    public void withStartStartTheOriginMustStartBeforeTheLatestStartOfTheDestiny() {
+        assertLatestStartOfOriginIs(QueueDependencyType.START_START, 15);
+    }
+
+    @Test
+    public void withEndEndTheOriginMustEndBeforeTheLatestEndOfTheDestiny() {
+        assertLatestStartOfOriginIs(QueueDependencyType.END_END, 18);
+    }
+
+    @Test
+    public void withStartEndTheOriginMustStartBeforeTheLatestEndOfTheDestiny() {
+        assertLatestStartOfOriginIs(QueueDependencyType.START_END, 20);
+    }
+
+    @Test
+    public void theLatestStartIsPropagatedThroughAChain() {
+        LimitingResourceQueueElement first = elementWithoutDeadline(2);
+        LimitingResourceQueueElement second = elementWithoutDeadline(3);
+        LimitingResourceQueueElement third = elementWithDeadline(5, 20);
+        dependency(first, second, QueueDependencyType.END_START);
+        dependency(second, third, QueueDependencyType.END_START);
+        // the latest start of first is 20 - 5 - 3 - 2 = 10
+        LimitingResourceQueueElement before = elementWithLatestStart(9);
+        LimitingResourceQueueElement after = elementWithLatestStart(11);
+
+        List<LimitingResourceQueueElement> result = inTopologicalOrderByLatestStart();
+
+        assertInOrder(result, before, first, after);
+        assertInOrder(result, first, second, third);
+    }
+
+    @Test
+    public void theOwnDeadlineIsUsedIfEarlierThanTheSuccessors() {
+        LimitingResourceQueueElement origin = elementWithDeadline(2, 5);
+        LimitingResourceQueueElement destiny = elementWithDeadline(5, 20);
+        dependency(origin, destiny, QueueDependencyType.END_START);
+        LimitingResourceQueueElement before = elementWithLatestStart(2);
+        LimitingResourceQueueElement after = elementWithLatestStart(4);
+
+        assertInOrder(inTopologicalOrderByLatestStart(), before, origin,
+                after);
+    }
+
+    @Test
+    public void theElementsWithoutDeadlineReachableGoLast() {
+        LimitingResourceQueueElement origin = elementWithoutDeadline(2);
+        LimitingResourceQueueElement destiny = elementWithoutDeadline(5);
+        dependency(origin, destiny, QueueDependencyType.END_START);
+        LimitingResourceQueueElement withDeadline = elementWithLatestStart(100);
+
+        assertInOrder(inTopologicalOrderByLatestStart(), withDeadline,
+                origin, destiny);
+    }
+
+    @Test
+    public void theElementsWithoutDatesAreOrdered() {
+        LimitingResourceQueueElement withoutDates = element(null, null, null);
+        LimitingResourceQueueElement withDeadlineOnly = element(null, 10, null);
+        LimitingResourceQueueElement withDeadline = elementWithLatestStart(12);
+
+        List<LimitingResourceQueueElement> result = inTopologicalOrderByLatestStart();
+
+        assertThat(result, equalTo(Arrays.asList(withDeadlineOnly,
+                withDeadline, withoutDates)));
+    }
+
+    @Test
+    public void theDeadlineOfASuccessorWithoutDatesIsPropagated() {
+        LimitingResourceQueueElement origin = elementWithoutDeadline(2);
+        LimitingResourceQueueElement destiny = element(null, 10, null);
+        dependency(origin, destiny, QueueDependencyType.END_START);
+        // the destiny lasts nothing, so the latest start of origin is 8
+        LimitingResourceQueueElement before = elementWithLatestStart(7);
+        LimitingResourceQueueElement after = elementWithLatestStart(9);
+
+        assertInOrder(inTopologicalOrderByLatestStart(), before, origin,
+                after);
+    }
+
+    @Test
+    public void theTiesAreBrokenByTheEarliestStartWithTheElementsWithoutItLast() {
+        LimitingResourceQueueElement withoutEarliestStart = element(2, null,
+                null);
+        LimitingResourceQueueElement late = element(2, null, 3);
+        LimitingResourceQueueElement early = element(2, null, 1);
+
+        assertThat(inTopologicalOrderByLatestStart(), equalTo(Arrays.asList(
+                early, late, withoutEarliestStart)));
+    }
+
+}
@@ -0,0 +1,140 @@
+/*
+ * This file is part of LibrePlan
+ *
+ * Copyright (C) 2014 Igalia, S.L.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.libreplan.web.reports;
+
+import static org.easymock.EasyMock.expectLastCall;
+import static org.easymock.classextension.EasyMock.createMock;
+import static org.easymock.classextension.EasyMock.replay;
+import static org.easymock.classextension.EasyMock.verify;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.util.LinkedList;
+import java.util.Queue;
+
+import net.sf.jasperreports.engine.JRDataSource;
+import net.sf.jasperreports.engine.fill.JRSwapFileVirtualizer;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the lifecycle of the virtualizer kept by
+ * {@link LibrePlanReportController} for the report being shown
+ */
+public class LibrePlanReportControllerTest {
+
+    private Queue<JRSwapFileVirtualizer> virtualizers;
+
+    private LibrePlanReportController controller;
+
+    @Before
+    public void setUp() {
+        virtualizers = new LinkedList<JRSwapFileVirtualizer>();
+        controller = new LibrePlanReportController() {
+
+            @Override
+            JRSwapFileVirtualizer createVirtualizer() {
+                return virtualizers.remove();
+            }
+
+            @Override
+            protected JRDataSource getDataSource() {
+                return null;
+            }
+
+            @Override
+            protected String getReportName() {
+                return "report.jasper";
+            }
+        };
+    }
+
+    private JRSwapFileVirtualizer givenVirtualizerNotCleanedUp() {
+        JRSwapFileVirtualizer result = createMock(JRSwapFileVirtualizer.class);
+        replay(result);
+        virtualizers.add(result);
+        return result;
+    }
+
+    private JRSwapFileVirtualizer givenVirtualizerCleanedUpOnce() {
+        JRSwapFileVirtualizer result = createMock(JRSwapFileVirtualizer.class);
+        result.cleanup();
+        expectLastCall().once();
+        replay(result);
+        virtualizers.add(result);
+        return result;
+    }
+
+    @Test
+    public void theVirtualizerIsKeptWhileTheReportIsShown() {
+        JRSwapFileVirtualizer virtualizer = givenVirtualizerNotCleanedUp();
+
+        assertThat(controller.replaceVirtualizer(), sameInstance(virtualizer));
+
+        verify(virtualizer);
+    }
+
+    @Test
+    public void thePreviousVirtualizerIsCleanedUpWhenAnotherReportIsShown() {
+        JRSwapFileVirtualizer previous = givenVirtualizerCleanedUpOnce();
+        JRSwapFileVirtualizer next = givenVirtualizerNotCleanedUp();
+
+        JRSwapFileVirtualizer first = controller.replaceVirtualizer();
+        JRSwapFileVirtualizer second = controller.replaceVirtualizer();
+
+        assertThat(second, not(sameInstance(first)));
+        verify(previous, next);
+    }
+
+    @Test
+    public void theVirtualizerIsCleanedUpOnlyOnce() {
+        JRSwapFileVirtualizer virtualizer = givenVirtualizerCleanedUpOnce();
+        controller.replaceVirtualizer();
+
+        controller.cleanupVirtualizer();
+        controller.cleanupVirtualizer();
+
+        verify(virtualizer);
+    }
+
+    @Test
+    public void theVirtualizerIsDroppedEvenIfItsCleanupFails() {
+        JRSwapFileVirtualizer failing = createMock(JRSwapFileVirtualizer.class);
+        failing.cleanup();
+        expectLastCall().andThrow(new RuntimeException("cleanup failed"))
+                .once();
+        replay(failing);
+        virtualizers.add(failing);
+        controller.replaceVirtualizer();
+        try {
+            controller.cleanupVirtualizer();
+        } catch (RuntimeException e) {
+            // expected
+        }
+        JRSwapFileVirtualizer next = givenVirtualizerNotCleanedUp();
+
+        controller.replaceVirtualizer();
+
+        verify(failing, next);
+    }
+
+}